@@ -0,0 +1,302 @@
+package sk.thenoen.slovosledsolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import sk.thenoen.slovosledsolver.model.GameWords;
+import sk.thenoen.slovosledsolver.model.ScoreKernel;
+
+/**
+ * Anytime beam search of a good game of {@link GameGenerator#WORDS_IN_GAME} words within a time budget. Each word
+ * position keeps the partial games with the highest score plus the upper bound of their remaining words, the same
+ * bound as in {@link GameSearch}. Partial games reached by different move orders are merged. The beam starts at the
+ * configured width and is doubled after every pass until the budget runs out; a pass that never had to drop a partial
+ * game has found the best game.
+ */
+class BeamSearch {
+
+	private static final Logger logger = LoggerFactory.getLogger(BeamSearch.class);
+
+	static final int MAX_BEAM_WIDTH = 1 << 18;
+
+	private static final long NO_GAME = GameSearch.NO_GAME;
+
+	private final GameWords gameWords;
+	private final ScoreKernel scoreKernel;
+	private final int wordCount;
+	private final int gameLength;
+	private final int beamWidth;
+	private final long timeBudgetNanos;
+
+	/**
+	 * @param beamWidth         partial games kept at each word position by the first pass
+	 * @param timeBudgetSeconds wall-clock time of the search, passes after the first one are stopped when it runs out
+	 */
+	BeamSearch(GameWords gameWords, int beamWidth, int timeBudgetSeconds) {
+		if (gameWords.size() > Long.SIZE) {
+			throw new IllegalArgumentException("Too many words: " + gameWords.size());
+		}
+		if (beamWidth < 1 || beamWidth > MAX_BEAM_WIDTH) {
+			throw new IllegalArgumentException("Beam width out of range: " + beamWidth);
+		}
+		this.gameWords = gameWords;
+		scoreKernel = gameWords.scoreKernel();
+		wordCount = gameWords.size();
+		gameLength = GameGenerator.WORDS_IN_GAME;
+		this.beamWidth = beamWidth;
+		this.timeBudgetNanos = timeBudgetSeconds * 1_000_000_000L;
+	}
+
+	GameSolution search(SolutionListener listener) {
+		final long start = System.nanoTime();
+		final long deadline = start + timeBudgetNanos;
+		final Search search = new Search(deadline);
+		for (int width = beamWidth, pass = 0; ; width = Math.min(2 * width, MAX_BEAM_WIDTH), pass++) {
+			final long previousScore = search.bestScore;
+			final boolean complete = search.pass(width, pass > 0);
+			logger.info("Beam of width {}: best game score {}, {} moves played after {} ms",
+						width,
+						search.bestScore,
+						search.visitedNodes,
+						(System.nanoTime() - start) / 1_000_000);
+			if (search.bestScore > previousScore && !listener.improved(search.solution())) {
+				break;
+			}
+			if (complete && !search.truncated) {
+				logger.info("Beam of width {} kept every partial game, the best game is found", width);
+				break;
+			}
+			if (!complete || width == MAX_BEAM_WIDTH || System.nanoTime() - deadline >= 0) {
+				break;
+			}
+		}
+		return search.solution();
+	}
+
+	private final class Search {
+
+		private final long deadline;
+		private final int[] bestWords = new int[gameLength];
+		private final int[] bestSelections = new int[gameLength];
+		private final long[] wordBounds = new long[wordCount];
+		private long bestScore = -1;
+		private long visitedNodes = 0;
+		private long prunedNodes = 0;
+		private boolean truncated;
+
+		private Search(long deadline) {
+			this.deadline = deadline;
+		}
+
+		/**
+		 * @param timed whether the pass stops at the deadline
+		 * @return false if the pass ran out of time
+		 */
+		private boolean pass(int width, boolean timed) {
+			truncated = false;
+			final Beam[] beams = new Beam[gameLength + 1];
+			beams[0] = new Beam(1);
+			beams[0].offer(-1, -1, 0, ScoreKernel.INITIAL_STATE, 0, false, 0, 0);
+			for (int depth = 0; depth < gameLength; depth++) {
+				beams[depth + 1] = new Beam(width);
+				for (int node = 0; node < beams[depth].size; node++) {
+					if (timed && System.nanoTime() - deadline >= 0) {
+						return false;
+					}
+					expand(beams[depth], node, depth, beams[depth + 1]);
+				}
+			}
+
+			final Beam games = beams[gameLength];
+			for (int node = 0; node < games.size; node++) {
+				if (games.scores[node] > bestScore) {
+					bestScore = games.scores[node];
+					int gameNode = node;
+					for (int depth = gameLength; depth > 0; depth--) {
+						bestWords[depth - 1] = beams[depth].words[gameNode];
+						bestSelections[depth - 1] = beams[depth].selections[gameNode];
+						gameNode = beams[depth].parents[gameNode];
+					}
+				}
+			}
+			return true;
+		}
+
+		private void expand(Beam beam, int node, int depth, Beam next) {
+			final long usedWords = beam.usedWords[node];
+			final long state = beam.states[node];
+			final long score = beam.scores[node];
+			final int remainingWords = gameLength - depth;
+
+			final long[] top = new long[remainingWords];
+			Arrays.fill(top, NO_GAME);
+			for (int word = 0; word < wordCount; word++) {
+				if ((usedWords & 1L << word) == 0) {
+					wordBounds[word] = gameWords.bound(state, word, remainingWords);
+					GameSearch.insert(top, wordBounds[word]);
+				}
+			}
+			final long bound = GameSearch.sum(top, remainingWords);
+			if (bound == NO_GAME || score + bound <= bestScore) {
+				prunedNodes++;
+				return;
+			}
+			final long boundAfterMove = GameSearch.sum(top, remainingWords - 1);
+
+			final boolean wordBonusActive = beam.bonusActive[node] || scoreKernel.isBonusActive(state);
+			for (int word = 0; word < wordCount; word++) {
+				if ((usedWords & 1L << word) != 0) {
+					continue;
+				}
+				final long otherWordsBound = remainingWords == 1 || wordBounds[word] < top[remainingWords - 2] ?
+											 boundAfterMove :
+											 bound - wordBounds[word];
+				for (int selection : gameWords.selections(word)) {
+					final long nextScore = score + gameWords.score(state, word, selection, wordBonusActive);
+					final long priority = nextScore + otherWordsBound;
+					// a game better than the best one needs a better bound
+					if (priority <= bestScore) {
+						prunedNodes++;
+						continue;
+					}
+					visitedNodes++;
+					next.offer(node,
+							   word,
+							   selection,
+							   scoreKernel.use(state, selection),
+							   usedWords | 1L << word,
+							   wordBonusActive,
+							   nextScore,
+							   priority);
+				}
+			}
+		}
+
+		private GameSolution solution() {
+			return new GameSolution(bestScore,
+									bestScore < 0 ? new int[0] : bestWords.clone(),
+									bestScore < 0 ? new int[0] : bestSelections.clone(),
+									visitedNodes,
+									prunedNodes);
+		}
+
+		/**
+		 * Partial games of a word position with the highest priorities, a min-heap of their slots. A partial game of
+		 * the same tile state, words and bonus flag is kept once, with its highest score.
+		 */
+		private final class Beam {
+
+			private final int[] parents;
+			private final int[] words;
+			private final int[] selections;
+			private final long[] states;
+			private final long[] usedWords;
+			private final boolean[] bonusActive;
+			private final long[] scores;
+			private final long[] priorities;
+			private final int[] heap; // slots, the lowest priority first
+			private final int[] heapPositions; // of the slots
+			private final Map<Key, Integer> slots = new HashMap<>();
+			private int size = 0;
+
+			private Beam(int width) {
+				parents = new int[width];
+				words = new int[width];
+				selections = new int[width];
+				states = new long[width];
+				usedWords = new long[width];
+				bonusActive = new boolean[width];
+				scores = new long[width];
+				priorities = new long[width];
+				heap = new int[width];
+				heapPositions = new int[width];
+			}
+
+			private void offer(int parent, int word, int selection, long state, long words, boolean active, long score, long priority) {
+				final int width = heap.length;
+				if (size == width && priority <= priorities[heap[0]]) {
+					truncated = true;
+					return;
+				}
+				final Key key = new Key(state, words, active);
+				final Integer existing = slots.get(key);
+				final int slot;
+				final boolean lowered; // the slot moves towards the root of the heap
+				if (existing != null) {
+					slot = existing;
+					if (score <= scores[slot]) {
+						return;
+					}
+					lowered = priority < priorities[slot];
+				} else if (size < width) {
+					slot = size;
+					heapPositions[slot] = size++;
+					slots.put(key, slot);
+					lowered = true;
+				} else {
+					// the partial game of the lowest priority is replaced
+					truncated = true;
+					slot = heap[0];
+					slots.remove(new Key(states[slot], usedWords[slot], bonusActive[slot]));
+					slots.put(key, slot);
+					lowered = false;
+				}
+				parents[slot] = parent;
+				this.words[slot] = word;
+				selections[slot] = selection;
+				states[slot] = state;
+				usedWords[slot] = words;
+				bonusActive[slot] = active;
+				scores[slot] = score;
+				priorities[slot] = priority;
+				if (lowered) {
+					siftUp(heapPositions[slot], slot);
+				} else {
+					siftDown(heapPositions[slot], slot);
+				}
+			}
+
+			private void siftUp(int position, int slot) {
+				while (position > 0) {
+					final int parent = (position - 1) >>> 1;
+					if (priorities[heap[parent]] <= priorities[slot]) {
+						break;
+					}
+					move(heap[parent], position);
+					position = parent;
+				}
+				move(slot, position);
+			}
+
+			private void siftDown(int position, int slot) {
+				while (true) {
+					int child = 2 * position + 1;
+					if (child >= size) {
+						break;
+					}
+					if (child + 1 < size && priorities[heap[child + 1]] < priorities[heap[child]]) {
+						child++;
+					}
+					if (priorities[slot] <= priorities[heap[child]]) {
+						break;
+					}
+					move(heap[child], position);
+					position = child;
+				}
+				move(slot, position);
+			}
+
+			private void move(int slot, int position) {
+				heap[position] = slot;
+				heapPositions[slot] = position;
+			}
+		}
+	}
+
+	private record Key(long state, long usedWords, boolean bonusActive) {
+	}
+}
@@ -0,0 +1,72 @@
+package sk.thenoen.slovosledsolver;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import sk.thenoen.slovosledsolver.util.Journal;
+
+/**
+ * Journals of the long-running phases, a journal is resumed only by a run with the same input.
+ */
+@Component
+public class Checkpoints {
+
+	private final String location;
+
+	public Checkpoints(@Value("${checkpoint.location:}") String location) {
+		this.location = location;
+	}
+
+	/**
+	 * @param input everything the results of the phase depend on
+	 * @return journal of the phase, a disabled one if no checkpoint location is configured
+	 */
+	public Journal open(String phase, String... input) {
+		if (location.isBlank()) {
+			return Journal.disabled();
+		}
+		final MessageDigest digest = createMessageDigest();
+		for (String part : input) {
+			digest.update(part.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+		}
+		return Journal.open(Path.of(location, phase + "-journal.txt"), phase + " " + HexFormat.of().formatHex(digest.digest()));
+	}
+
+	/**
+	 * @return hash of the content of an input file, empty if the file is not configured or readable
+	 */
+	public static String fileDigest(String file) {
+		if (file.isBlank() || !Files.isReadable(Path.of(file))) {
+			return "";
+		}
+		final MessageDigest digest = createMessageDigest();
+		try (InputStream input = Files.newInputStream(Path.of(file))) {
+			final byte[] buffer = new byte[1 << 16];
+			int read;
+			while ((read = input.read(buffer)) >= 0) {
+				digest.update(buffer, 0, read);
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to read " + file, e);
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private static MessageDigest createMessageDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException("Unable to initialize MessageDigest", e);
+		}
+	}
+}
@@ -0,0 +1,326 @@
+package sk.thenoen.slovosledsolver;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import sk.thenoen.slovosledsolver.hash.WordHasher;
+import sk.thenoen.slovosledsolver.model.Bonus;
+import sk.thenoen.slovosledsolver.model.Tile;
+
+/**
+ * Splits the word search into the units of {@link TileEnumerator} and the games into rank ranges of the word sets
+ * of {@link WordCombinations}, and hands them out to the connected {@link ClusterWorker}s one chunk at a time, so
+ * faster workers get more chunks. Workers may connect at any time, chunks of a disconnected worker are handed out
+ * again.
+ */
+@Component
+public class ClusterCoordinator {
+
+	private static final Logger logger = LoggerFactory.getLogger(ClusterCoordinator.class);
+
+	private final int port;
+	private final long rankChunk;
+	private final boolean collisionHunting;
+
+	// guarded by this
+	private ServerSocket serverSocket;
+	private Job job;
+	private int workers = 0;
+	private boolean closed = false;
+
+	public ClusterCoordinator(@Value("${cluster.port:7345}") int port,
+							  @Value("${cluster.rank-chunk:10000}") long rankChunk,
+							  @Value("${words.finder.collision-hunting:false}") boolean collisionHunting) {
+		this.port = port;
+		this.rankChunk = rankChunk;
+		this.collisionHunting = collisionHunting;
+	}
+
+	/**
+	 * Enumerates the units of the tile enumerator by the workers, the words they find are taken by the enumerator.
+	 *
+	 * @param hashes    of the targets the workers look for
+	 * @param trieWords words of the trie for {@link WordsFinder.SearchMode#DICTIONARY_TRIE}, empty for none
+	 */
+	void enumerate(List<String> alphabet,
+				   List<String> hashes,
+				   WordsFinder.SearchMode searchMode,
+				   List<String> trieWords,
+				   TileEnumerator tileEnumerator) {
+		final List<String> units = tileEnumerator.units();
+		run(new Job("Search",
+					new String[]{
+							ClusterProtocol.SEARCH,
+							String.join(ClusterProtocol.LIST_SEPARATOR, alphabet),
+							String.valueOf(collisionHunting),
+							String.join(ClusterProtocol.LIST_SEPARATOR, hashes),
+							searchMode.name(),
+							String.join(ClusterProtocol.LIST_SEPARATOR, trieWords)
+					},
+					units.stream().map(unit -> new String[]{ClusterProtocol.UNIT, unit}).toList(),
+					() -> {
+						final WordHasher hasher = tileEnumerator.createHasher();
+						return message -> tileEnumerator.found(hasher, message[1]);
+					},
+					chunk -> tileEnumerator.finished(chunk[1]),
+					tileEnumerator::isStopped));
+	}
+
+	/**
+	 * @return best score of all the ordered combinations of the words, played as word sets by the workers
+	 */
+	public long playGames(List<String> words, List<Tile> tiles, Bonus bonus) {
+		final long start = System.nanoTime();
+		final long wordSetCount = WordCombinations.countSets(words.size(), GameGenerator.WORDS_IN_GAME);
+		final List<String[]> chunks = new ArrayList<>();
+		for (long fromRank = 0; fromRank < wordSetCount; fromRank += rankChunk) {
+			chunks.add(new String[]{
+					ClusterProtocol.RANKS,
+					String.valueOf(fromRank),
+					String.valueOf(Math.min(fromRank + rankChunk, wordSetCount))
+			});
+		}
+
+		// best score and its rank, no rank until a game is played
+		final long[] best = {0, -1};
+		run(new Job("Games",
+					new String[]{
+							ClusterProtocol.GAMES,
+							String.join(ClusterProtocol.LIST_SEPARATOR, words),
+							ClusterProtocol.encodeTiles(tiles),
+							ClusterProtocol.encodePattern(bonus),
+							String.valueOf(bonus.getValue()),
+							String.valueOf(bonus.getIndex())
+					},
+					chunks,
+					() -> message -> {
+						final long score = Long.parseLong(message[1]);
+						final long rank = Long.parseLong(message[2]);
+						synchronized (best) {
+							// a chunk without a playable game has no rank
+							if (rank >= 0 && (best[1] < 0 || score > best[0] || score == best[0] && rank < best[1])) {
+								best[0] = score;
+								best[1] = rank;
+							}
+						}
+					},
+					chunk -> {
+					},
+					() -> false));
+
+		if (best[1] >= 0) {
+			final int[] wordIndices = new int[GameGenerator.WORDS_IN_GAME];
+			WordCombinations.unrankSet(best[1], words.size(), wordIndices);
+			logger.info("Found best score: {} for word set {}",
+						best[0],
+						Arrays.stream(wordIndices).mapToObj(words::get).toList());
+		}
+		logger.info("Distributed games of {} word sets played in {} ms", wordSetCount, (System.nanoTime() - start) / 1_000_000);
+		return best[0];
+	}
+
+	/**
+	 * Starts accepting workers, done by the first distributed phase if not called before.
+	 *
+	 * @return port the workers connect to
+	 */
+	synchronized int start() {
+		if (serverSocket == null) {
+			try {
+				serverSocket = new ServerSocket(port);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Unable to listen on port " + port, e);
+			}
+			logger.info("Coordinator listening on port {}", serverSocket.getLocalPort());
+			final ServerSocket acceptingSocket = serverSocket;
+			Thread.ofPlatform().daemon().name("cluster-accept").start(() -> accept(acceptingSocket));
+		}
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Sends bye to the workers, they finish their current chunk first.
+	 */
+	@PreDestroy
+	public synchronized void close() {
+		closed = true;
+		notifyAll();
+		if (serverSocket != null) {
+			try {
+				serverSocket.close();
+			} catch (IOException e) {
+				logger.warn("Unable to close coordinator socket", e);
+			}
+		}
+	}
+
+	private void run(Job job) {
+		start();
+		synchronized (this) {
+			if (workers == 0) {
+				logger.info("{}: waiting for workers", job.name);
+			}
+			this.job = job;
+			notifyAll();
+			try {
+				while (!job.isFinished()) {
+					wait();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(job.name + " interrupted", e);
+			} finally {
+				this.job = null;
+			}
+		}
+	}
+
+	private void accept(ServerSocket acceptingSocket) {
+		while (!acceptingSocket.isClosed()) {
+			try {
+				final Socket socket = acceptingSocket.accept();
+				Thread.ofPlatform().daemon().name("cluster-worker-" + socket.getRemoteSocketAddress()).start(() -> serve(socket));
+			} catch (IOException e) {
+				if (!acceptingSocket.isClosed()) {
+					logger.warn("Unable to accept worker", e);
+				}
+			}
+		}
+	}
+
+	private void serve(Socket socket) {
+		synchronized (this) {
+			workers++;
+			logger.info("Worker {} connected, {} workers", socket.getRemoteSocketAddress(), workers);
+		}
+		try (socket;
+			 BufferedReader reader = ClusterProtocol.reader(socket);
+			 BufferedWriter writer = ClusterProtocol.writer(socket)) {
+			Job inputSent = null;
+			Consumer<String[]> resultHandler = null;
+			while (true) {
+				final Job currentJob;
+				final String[] chunk;
+				synchronized (this) {
+					while (!closed && (job == null || !job.hasPendingChunk())) {
+						wait();
+					}
+					if (closed) {
+						break;
+					}
+					currentJob = job;
+					chunk = currentJob.pending.poll();
+					currentJob.running++;
+				}
+
+				try {
+					if (currentJob != inputSent) {
+						ClusterProtocol.send(writer, currentJob.input);
+						inputSent = currentJob;
+						resultHandler = currentJob.resultHandlers.get();
+					}
+					ClusterProtocol.send(writer, chunk);
+					writer.flush();
+					String[] message;
+					while (!(message = receive(reader))[0].equals(ClusterProtocol.DONE)) {
+						resultHandler.accept(message);
+					}
+					currentJob.finishedChunks.accept(chunk);
+				} catch (IOException | RuntimeException e) {
+					synchronized (this) {
+						currentJob.pending.addFirst(chunk);
+						currentJob.running--;
+						notifyAll();
+					}
+					throw e;
+				}
+				finished(currentJob);
+			}
+			ClusterProtocol.send(writer, ClusterProtocol.BYE);
+			writer.flush();
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Worker {} disconnected, its chunk is handed out again", socket.getRemoteSocketAddress(), e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			synchronized (this) {
+				workers--;
+			}
+		}
+	}
+
+	private static String[] receive(BufferedReader reader) throws IOException {
+		final String[] message = ClusterProtocol.receive(reader);
+		if (message == null) {
+			throw new IOException("Connection closed by worker");
+		}
+		return message;
+	}
+
+	private synchronized void finished(Job job) {
+		job.running--;
+		job.finished++;
+		final long progress = job.finished * 100L / job.chunkCount;
+		if (progress != job.progress) {
+			logger.info("{}: {} % of {} chunks done, {} workers", job.name, progress, job.chunkCount, workers);
+			job.progress = progress;
+		}
+		notifyAll();
+	}
+
+	// chunk counters are guarded by the coordinator
+	private static final class Job {
+
+		private final String name;
+		private final String[] input; // sent to a worker before its first chunk
+		private final Deque<String[]> pending;
+		private final int chunkCount;
+		private final Supplier<Consumer<String[]>> resultHandlers; // one per connection, called concurrently
+		private final Consumer<String[]> finishedChunks; // called concurrently
+		private final BooleanSupplier stopped; // no more chunks are needed
+		private int running = 0;
+		private int finished = 0;
+		private long progress = -1;
+
+		private Job(String name,
+					String[] input,
+					List<String[]> chunks,
+					Supplier<Consumer<String[]>> resultHandlers,
+					Consumer<String[]> finishedChunks,
+					BooleanSupplier stopped) {
+			this.name = name;
+			this.input = input;
+			this.pending = new ArrayDeque<>(chunks);
+			this.chunkCount = chunks.size();
+			this.resultHandlers = resultHandlers;
+			this.finishedChunks = finishedChunks;
+			this.stopped = stopped;
+		}
+
+		private boolean hasPendingChunk() {
+			return !pending.isEmpty() && !stopped.getAsBoolean();
+		}
+
+		private boolean isFinished() {
+			return running == 0 && !hasPendingChunk();
+		}
+	}
+}
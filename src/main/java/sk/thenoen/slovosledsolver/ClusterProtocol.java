@@ -0,0 +1,108 @@
+package sk.thenoen.slovosledsolver;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import sk.thenoen.slovosledsolver.model.Bonus;
+import sk.thenoen.slovosledsolver.model.Tile;
+
+/**
+ * Line protocol between the coordinator and its workers. A message is a line of tab-separated fields, the first
+ * field is the type of the message.
+ * <p>
+ * Before the first chunk of a phase the coordinator sends the input of the phase ({@link #SEARCH}, {@link #GAMES}),
+ * then one chunk at a time ({@link #UNIT}, {@link #RANKS}). The worker answers a chunk by its results
+ * ({@link #WORD}, {@link #SCORE}) followed by {@link #DONE}. {@link #BYE} or the end of the stream ends the session.
+ */
+final class ClusterProtocol {
+
+	// coordinator to worker
+	static final String SEARCH = "search"; // tiles, collision hunting, hashes of the targets, search mode, trie words
+	static final String UNIT = "unit"; // unit of the search, see TileEnumerator#units
+	static final String GAMES = "games"; // words, tiles, bonus pattern (empty for none), bonus value, bonus index
+	static final String RANKS = "ranks"; // first rank, rank after the last one, see WordCombinations
+	static final String BYE = "bye";
+
+	// worker to coordinator
+	static final String WORD = "word"; // found word
+	static final String SCORE = "score"; // best score of the ranks, its rank
+	static final String DONE = "done";
+
+	private static final String FIELD_SEPARATOR = "\t";
+	static final String LIST_SEPARATOR = ",";
+	private static final String TILE_SEPARATOR = ":";
+	private static final String NO_PATTERN = "";
+
+	private ClusterProtocol() {
+	}
+
+	static BufferedReader reader(Socket socket) throws IOException {
+		return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+	}
+
+	static BufferedWriter writer(Socket socket) throws IOException {
+		return new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+	}
+
+	static void send(Writer writer, String... fields) throws IOException {
+		writer.write(String.join(FIELD_SEPARATOR, fields));
+		writer.write('\n');
+	}
+
+	/**
+	 * @return fields of the next message, {@code null} at the end of the stream
+	 */
+	static String[] receive(BufferedReader reader) throws IOException {
+		final String line = reader.readLine();
+		return line == null ? null : line.split(FIELD_SEPARATOR, -1);
+	}
+
+	/**
+	 * @return items of the list field, an empty field is an empty list
+	 */
+	static List<String> decodeList(String encodedList) {
+		return encodedList.isEmpty() ? List.of() : List.of(encodedList.split(LIST_SEPARATOR));
+	}
+
+	static String encodeTiles(List<Tile> tiles) {
+		final List<String> encodedTiles = new ArrayList<>();
+		for (Tile tile : tiles) {
+			encodedTiles.add(tile.getLetter() + TILE_SEPARATOR + tile.getValue() + TILE_SEPARATOR + tile.getUsageCount());
+		}
+		return String.join(LIST_SEPARATOR, encodedTiles);
+	}
+
+	static List<Tile> decodeTiles(String encodedTiles) {
+		final List<Tile> tiles = new ArrayList<>();
+		for (String encodedTile : encodedTiles.split(LIST_SEPARATOR)) {
+			final String[] parts = encodedTile.split(TILE_SEPARATOR);
+			final Tile tile = new Tile();
+			tile.setLetter(parts[0]);
+			tile.setValue(Integer.parseInt(parts[1]));
+			tile.setUsageCount(Integer.parseInt(parts[2]));
+			tiles.add(tile);
+		}
+		return tiles;
+	}
+
+	// a bonus without a pattern scores nothing, see ScoreKernel
+	static String encodePattern(Bonus bonus) {
+		return bonus.getPattern() == null ? NO_PATTERN : bonus.getPattern();
+	}
+
+	static Bonus decodeBonus(String pattern, String value, String index) {
+		final Bonus bonus = new Bonus();
+		bonus.setPattern(pattern.equals(NO_PATTERN) ? null : pattern);
+		bonus.setValue(Integer.parseInt(value));
+		bonus.setIndex(Integer.parseInt(index));
+		return bonus;
+	}
+}
@@ -0,0 +1,10 @@
+package sk.thenoen.slovosledsolver;
+
+public enum ClusterRole {
+	// the search and the games run in this process only
+	STANDALONE,
+	// the search and the games are split into chunks and handed out to the connected workers
+	COORDINATOR,
+	// connects to the coordinator and processes its chunks until it is done
+	WORKER
+}
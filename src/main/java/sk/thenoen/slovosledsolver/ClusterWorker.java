@@ -0,0 +1,165 @@
+package sk.thenoen.slovosledsolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.Socket;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import sk.thenoen.slovosledsolver.hash.HashBackend;
+import sk.thenoen.slovosledsolver.hash.HashTargets;
+import sk.thenoen.slovosledsolver.hash.MatchedTargets;
+import sk.thenoen.slovosledsolver.model.GameWords;
+import sk.thenoen.slovosledsolver.model.Tile;
+import sk.thenoen.slovosledsolver.util.Journal;
+
+/**
+ * Processes the chunks of a {@link ClusterCoordinator}, see {@link ClusterProtocol}. A chunk is processed by all
+ * the cores of this process.
+ */
+@Component
+public class ClusterWorker {
+
+	private static final Logger logger = LoggerFactory.getLogger(ClusterWorker.class);
+
+	private static final long CONNECT_RETRY_MILLIS = 1000;
+
+	private final String host;
+	private final int port;
+	private final HashBackend hashBackend;
+	private final int parallelism;
+	private final LetterModel letterModel;
+	private final GameGenerator gameGenerator;
+
+	public ClusterWorker(@Value("${cluster.host:localhost}") String host,
+						 @Value("${cluster.port:7345}") int port,
+						 @Value("${words.finder.hash-backend:AUTO}") HashBackend hashBackend,
+						 @Value("${words.finder.parallelism:0}") int parallelism,
+						 LetterModel letterModel,
+						 GameGenerator gameGenerator) {
+		this.host = host;
+		this.port = port;
+		this.hashBackend = hashBackend;
+		this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		this.letterModel = letterModel;
+		this.gameGenerator = gameGenerator;
+	}
+
+	/**
+	 * Processes chunks until the coordinator says bye or disconnects.
+	 */
+	public void run() {
+		try (Socket socket = connect();
+			 BufferedReader reader = ClusterProtocol.reader(socket);
+			 BufferedWriter writer = ClusterProtocol.writer(socket);
+			 ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+			logger.info("Connected to coordinator {}:{}", host, port);
+
+			final Set<String> foundWords = ConcurrentHashMap.newKeySet();
+			TileEnumerator tileEnumerator = null;
+			WordSetEvaluator wordSetEvaluator = null;
+			long processedMessages = 0;
+
+			String[] message;
+			while ((message = ClusterProtocol.receive(reader)) != null && !message[0].equals(ClusterProtocol.BYE)) {
+				switch (message[0]) {
+					case ClusterProtocol.SEARCH -> {
+						final List<String> alphabet = ClusterProtocol.decodeList(message[1]);
+						final HashTargets targets = new HashTargets(ClusterProtocol.decodeList(message[3]).toArray(String[]::new));
+						// the coordinator sends the words of its word list, the trie is the same as its one
+						final WordTrie trie = WordsFinder.SearchMode.valueOf(message[4]) == WordsFinder.SearchMode.DICTIONARY_TRIE ?
+											  new WordTrie(alphabet, ClusterProtocol.decodeList(message[5])) :
+											  null;
+						tileEnumerator = new TileEnumerator(alphabet,
+															targets,
+															hashBackend,
+															new MatchedTargets(targets),
+															Boolean.parseBoolean(message[2]),
+															letterModel,
+															trie,
+															Journal.disabled(),
+															foundWords);
+						logger.info("Searching words of {} tiles", alphabet.size());
+					}
+					case ClusterProtocol.UNIT -> {
+						tileEnumerator.enumerate(pool, message[1]);
+						for (String word : foundWords) {
+							ClusterProtocol.send(writer, ClusterProtocol.WORD, word);
+						}
+						foundWords.clear();
+						ClusterProtocol.send(writer, ClusterProtocol.DONE);
+					}
+					case ClusterProtocol.GAMES -> {
+						final List<String> words = ClusterProtocol.decodeList(message[1]);
+						final List<Tile> tiles = ClusterProtocol.decodeTiles(message[2]);
+						wordSetEvaluator = new WordSetEvaluator(new GameWords(words,
+																			  tiles,
+																			  ClusterProtocol.decodeBonus(message[3], message[4], message[5]),
+																			  gameGenerator.findDistinctWordsSelections(tiles, words)));
+						logger.info("Playing games of {} words", words.size());
+					}
+					case ClusterProtocol.RANKS -> {
+						final long[] best = evaluate(pool, wordSetEvaluator, Long.parseLong(message[1]), Long.parseLong(message[2]));
+						ClusterProtocol.send(writer, ClusterProtocol.SCORE, String.valueOf(best[0]), String.valueOf(best[1]));
+						ClusterProtocol.send(writer, ClusterProtocol.DONE);
+					}
+					default -> throw new IllegalStateException("Unexpected message: " + message[0]);
+				}
+				writer.flush();
+				processedMessages++;
+			}
+			logger.info("Coordinator finished, {} messages processed", processedMessages);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Connection to coordinator " + host + ":" + port + " failed", e);
+		}
+	}
+
+	private Socket connect() throws IOException {
+		boolean logged = false;
+		while (true) {
+			try {
+				return new Socket(host, port);
+			} catch (ConnectException e) {
+				if (!logged) {
+					logger.info("Waiting for coordinator {}:{}", host, port);
+					logged = true;
+				}
+			}
+			try {
+				Thread.sleep(CONNECT_RETRY_MILLIS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for coordinator", e);
+			}
+		}
+	}
+
+	// best score of the ranks and its rank, the lowest rank of equal scores
+	private static long[] evaluate(ForkJoinPool pool, WordSetEvaluator wordSetEvaluator, long fromRank, long toRank) {
+		final int slices = pool.getParallelism();
+		return pool.submit(() -> IntStream.range(0, slices)
+										  .parallel()
+										  .mapToObj(slice -> wordSetEvaluator.evaluate(fromRank + (toRank - fromRank) * slice / slices,
+																					   fromRank + (toRank - fromRank) * (slice + 1) / slices))
+										  .reduce(new long[]{-1, -1}, ClusterWorker::better))
+				   .join();
+	}
+
+	private static long[] better(long[] first, long[] second) {
+		if (first[0] != second[0]) {
+			return first[0] > second[0] ? first : second;
+		}
+		return first[1] <= second[1] ? first : second;
+	}
+}
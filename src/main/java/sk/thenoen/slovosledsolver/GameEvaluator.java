@@ -0,0 +1,98 @@
+package sk.thenoen.slovosledsolver;
+
+import sk.thenoen.slovosledsolver.model.Game;
+import sk.thenoen.slovosledsolver.model.GameWords;
+import sk.thenoen.slovosledsolver.model.ScoreKernel;
+
+/**
+ * Plays word combinations with every possible selection of tiles for their words, with the same results as
+ * {@link Game#play()}. Games are walked as a tree of (word, selection) moves - the tiles of a move are used once for
+ * all the games sharing the prefix, a game costs the work of its last word. Tile state and scores come from a
+ * {@link ScoreKernel}.
+ * <p>
+ * Instances are immutable and may be shared by threads.
+ */
+class GameEvaluator {
+
+	private final GameWords gameWords;
+	private final ScoreKernel scoreKernel;
+	private final int wordCount;
+
+	GameEvaluator(GameWords gameWords) {
+		if (gameWords.size() > Long.SIZE) {
+			throw new IllegalArgumentException("Too many words: " + gameWords.size());
+		}
+		this.gameWords = gameWords;
+		scoreKernel = gameWords.scoreKernel();
+		wordCount = gameWords.size();
+	}
+
+	/**
+	 * @return best score of the words with the given indices played in the given order
+	 */
+	long evaluate(int[] wordIndices) {
+		final long rank = WordCombinations.rank(wordIndices, wordCount);
+		return Math.max(0, evaluate(rank, rank + 1, wordIndices.length)[0]);
+	}
+
+	/**
+	 * @return best score of the combinations of {@link GameGenerator#WORDS_IN_GAME} words with ranks in the range and
+	 * the lowest rank with that score, both -1 if no game can be played
+	 */
+	long[] evaluate(long fromRank, long toRank) {
+		return evaluate(fromRank, toRank, GameGenerator.WORDS_IN_GAME);
+	}
+
+	private long[] evaluate(long fromRank, long toRank, int gameLength) {
+		final Walk walk = new Walk(fromRank, toRank, gameLength);
+		walk.visit(0, 0, 0, ScoreKernel.INITIAL_STATE, 0, false);
+		return new long[]{walk.bestScore, walk.bestRank};
+	}
+
+	private final class Walk {
+
+		private final long fromRank;
+		private final long toRank;
+		private final int gameLength;
+		private long bestScore = -1;
+		private long bestRank = -1;
+
+		private Walk(long fromRank, long toRank, int gameLength) {
+			this.fromRank = fromRank;
+			this.toRank = toRank;
+			this.gameLength = gameLength;
+		}
+
+		// all the games in the subtree have ranks from firstRank on, in the order of their words
+		private void visit(int depth, long firstRank, long usedWords, long state, long score, boolean bonusActive) {
+			if (depth == gameLength) {
+				if (score > bestScore || score == bestScore && firstRank < bestRank) {
+					bestScore = score;
+					bestRank = firstRank;
+				}
+				return;
+			}
+
+			final long subtreeSize = WordCombinations.count(wordCount - depth - 1, gameLength - depth - 1);
+			// the bonus is latched before the word is played, it does not depend on its selection
+			final boolean wordBonusActive = bonusActive || scoreKernel.isBonusActive(state);
+			long rank = firstRank;
+			for (int word = 0; word < wordCount && rank < toRank; word++) {
+				if ((usedWords & 1L << word) != 0) {
+					continue;
+				}
+				if (rank + subtreeSize > fromRank) {
+					for (int selection : gameWords.selections(word)) {
+						visit(depth + 1,
+							  rank,
+							  usedWords | 1L << word,
+							  scoreKernel.use(state, selection),
+							  score + gameWords.score(state, word, selection, wordBonusActive),
+							  wordBonusActive);
+					}
+				}
+				rank += subtreeSize;
+			}
+		}
+	}
+}
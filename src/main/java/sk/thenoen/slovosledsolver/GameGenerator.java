@@ -5,17 +5,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Stream;
+import java.util.stream.IntStream;
 
-import sk.thenoen.slovosledsolver.model.Bonus;
-import sk.thenoen.slovosledsolver.model.Game;
 import sk.thenoen.slovosledsolver.model.Tile;
 
 @Component
@@ -23,120 +19,95 @@ public class GameGenerator {
 
 	private static final Logger logger = LoggerFactory.getLogger(GameGenerator.class);
 
-	private final DataStorage dataStorage;
-
-	public GameGenerator(DataStorage dataStorage) {
-		this.dataStorage = dataStorage;
-	}
+	static final int WORDS_IN_GAME = 5;
 
 	public Map<String, List<List<Integer>>> generateAllPossibleWordSelectionCombinations(List<Tile> tiles, List<String> words) {
 
-		logger.info("Generating all possible word combinations ...");
-		List<Short> wordIndices = new ArrayList<>();
-		for (int i = 0; i < words.size(); i++) {
-			wordIndices.add((short) i);
-		}
-
-		findAllPossibleWordCombinationsUsingIndices(new ArrayList<>(), 0, wordIndices);
-		dataStorage.flushIndexCacheToDisk();
-
-		logger.info("Found all possible word combinations");
-		logger.info("Found all possible word combinations using indices");
-
 		logger.info("Generating all possible word selections ...");
 		final Map<String, List<List<Integer>>> allPossibleWordsSelections = findAllPossibleWordsSelections(tiles, words);
 		logger.info("Generated all possible word selections finished");
 		return allPossibleWordsSelections;
 	}
 
-	public Map<List<String>, List<List<List<Integer>>>> generateWordSelectionCombinations(List<String> words,
-																						  List<Tile> tiles,
-																						  Map<String, List<List<Integer>>> allPossibleWordsSelections) {
-		final Stream<String> wordIndexCombinationStream = dataStorage.readWordIndexCombinationsFromDisk();
-
-		long wordIndexCombinationCount = 1;
-		for (int i = 0; i < 5; i++) {
-			wordIndexCombinationCount *= words.size() - i;
-		}
-
-		long bestScore = 0;
-		long currentIndex = 0;
-		long progress = -1;
-		final Iterator<String> iterator = wordIndexCombinationStream.iterator();
-		while (iterator.hasNext()) {
-			final String wordIndexCombination = iterator.next();
-			final List<Short> indicesOfSelectedWords = Arrays.stream(wordIndexCombination.split(","))
-															 .map(Short::parseShort)
-															 .toList();
-			final List<List<List<Integer>>> wordSelectionCombinations = generateWordSelectionCombinations(
-					0,
-					words,
-					indicesOfSelectedWords,
-					new ArrayList<>(new ArrayList<>()),
-					allPossibleWordsSelections);
-			//			logger.info("Found {} possible word selection combinations for word combination {}", wordSelectionCombinations.size(), wordIndexCombination);
-
-			currentIndex++;
-			for (List<List<Integer>> wordSelectionCombination : wordSelectionCombinations) {
-				final List<String> selectedWords = indicesOfSelectedWords.stream()
-																		 .map(words::get)
-																		 .toList();
-				final Game game = new Game(tiles, new Bonus(), selectedWords, wordSelectionCombination);
-				final long score = game.play();
-
-				if (score > bestScore) {
-					bestScore = score;
-					logger.info("Found best score: {} for word combination {}", bestScore, wordIndexCombination);
-				}
-			}
-
-			long newProgress = (currentIndex * 100) / wordIndexCombinationCount;
-			if (newProgress != progress || progress == -1) {
-				logger.info("Progress: {} %", newProgress);
-				progress = newProgress;
-			}
+	/**
+	 * @return distinct tile sets of the words as tile masks, see {@link #findDistinctWordSelections(List, String)}
+	 */
+	public Map<String, int[]> findDistinctWordsSelections(List<Tile> tiles, List<String> words) {
+		logger.info("Generating distinct word selections ...");
+		Map<String, int[]> wordSelections = new HashMap<>();
+		long selectionCount = 0;
+		for (String word : words) {
+			final int[] selections = findDistinctWordSelections(tiles, word);
+			wordSelections.put(word, selections);
+			selectionCount += selections.length;
 		}
-
-		dataStorage.flushWordsSelectionCombinationCacheToDisk();
-		return null;
+		logger.info("Generated {} distinct word selections", selectionCount);
+		return wordSelections;
 	}
 
-	private List<List<List<Integer>>> generateWordSelectionCombinations(int index,
-																		List<String> words,
-																		List<Short> wordIndexCombination,
-																		List<List<Integer>> prefix,
-																		Map<String, List<List<Integer>>> allPossibleWordsSelections) {
-		if (index == wordIndexCombination.size()) {
-			return List.of(prefix);
+	/**
+	 * A word scores and uses its tiles the same way whatever order its repeated letters take the tiles in, so each set
+	 * of tiles is emitted once: tiles of a repeated letter are taken in increasing order.
+	 *
+	 * @return masks of the distinct tile sets the word can be selected with, in increasing order
+	 */
+	public int[] findDistinctWordSelections(List<Tile> tiles, String word) {
+		if (tiles.size() > Integer.SIZE) {
+			throw new IllegalArgumentException("Too many tiles: " + tiles.size());
 		}
-
-		List<List<List<Integer>>> result = new ArrayList<>();
-
-		final String word = words.get(wordIndexCombination.get(index));
-		for (List<Integer> wordSelection : allPossibleWordsSelections.get(word)) {
-			List<List<Integer>> newPrefix = new ArrayList<>(prefix);
-			newPrefix.add(wordSelection);
-			result.addAll(generateWordSelectionCombinations(index + 1, words, wordIndexCombination, newPrefix, allPossibleWordsSelections));
+		final int[][] tilesOfCharacters = new int[word.length()][];
+		final int[] previousSameCharacter = new int[word.length()];
+		for (int i = 0; i < word.length(); i++) {
+			final String character = word.charAt(i) + "";
+			tilesOfCharacters[i] = IntStream.range(0, tiles.size())
+											.filter(tile -> tiles.get(tile).getLetter().equals(character))
+											.toArray();
+			previousSameCharacter[i] = word.lastIndexOf(word.charAt(i), i - 1);
 		}
-		return result;
+
+		final IntStream.Builder selections = IntStream.builder();
+		findDistinctWordSelections(tilesOfCharacters, previousSameCharacter, new int[word.length()], 0, 0, selections);
+		return selections.build().sorted().toArray();
 	}
 
-	private void findAllPossibleWordCombinationsUsingIndices(List<Short> prefix, int index, List<Short> wordIndices) {
-		if (index == 5) {
-			logger.debug("Found possible word combination: {}", prefix);
-			dataStorage.storeWordIndexCombination(prefix);
+	private void findDistinctWordSelections(int[][] tilesOfCharacters,
+											int[] previousSameCharacter,
+											int[] selectedTiles,
+											int index,
+											int usedTiles,
+											IntStream.Builder selections) {
+		if (index == tilesOfCharacters.length) {
+			selections.add(usedTiles);
 			return;
 		}
+		// a repeated letter takes a tile after the one of its previous occurrence
+		final int minTile = previousSameCharacter[index] >= 0 ? selectedTiles[previousSameCharacter[index]] + 1 : 0;
+		for (int tile : tilesOfCharacters[index]) {
+			if (tile < minTile || (usedTiles & 1 << tile) != 0) {
+				continue;
+			}
+			selectedTiles[index] = tile;
+			findDistinctWordSelections(tilesOfCharacters, previousSameCharacter, selectedTiles, index + 1, usedTiles | 1 << tile, selections);
+		}
+	}
 
-		for (Short wordIndex : wordIndices) {
-			if (!prefix.contains(wordIndex)) {
-				List<Short> newPrefix = new ArrayList<>(prefix);
-				newPrefix.add(wordIndex);
-				List<Short> newWords = new ArrayList<>(wordIndices);
-				newWords.remove(wordIndex);
-				findAllPossibleWordCombinationsUsingIndices(newPrefix, index + 1, newWords);
+	/**
+	 * @return tiles of the selection mask in the order of the letters of the word, repeated letters take the tiles in
+	 * increasing order
+	 */
+	public List<Integer> toWordSelection(List<Tile> tiles, String word, int selection) {
+		final List<Integer> wordSelection = new ArrayList<>();
+		int remainingTiles = selection;
+		for (int i = 0; i < word.length(); i++) {
+			final String character = word.charAt(i) + "";
+			int tile = 0;
+			while ((remainingTiles & 1 << tile) == 0 || !tiles.get(tile).getLetter().equals(character)) {
+				tile++;
 			}
+			wordSelection.add(tile);
+			remainingTiles &= ~(1 << tile);
 		}
+		return wordSelection;
 	}
 
 	public Map<String, List<List<Integer>>> findAllPossibleWordsSelections(List<Tile> tiles, List<String> words) {
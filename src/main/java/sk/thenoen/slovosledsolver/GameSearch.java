@@ -0,0 +1,264 @@
+package sk.thenoen.slovosledsolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import sk.thenoen.slovosledsolver.model.GameWords;
+import sk.thenoen.slovosledsolver.model.ScoreKernel;
+
+/**
+ * Branch and bound search of the best game of {@link GameGenerator#WORDS_IN_GAME} words, with the same best score as
+ * {@link GameEvaluator} over all the ordered combinations. A continuation is cut off when the upper bound of its
+ * score cannot beat the best game found so far: every remaining word is bounded by its selection with the highest
+ * tile values reachable before it is played, times its length, plus its bonus. The best game starts from a greedy
+ * one and the most promising moves are played first. Continuations reached again by another move order are bounded
+ * by a {@link TranspositionTable}.
+ */
+class GameSearch {
+
+	private static final Logger logger = LoggerFactory.getLogger(GameSearch.class);
+
+	// also the bound of a word without selections
+	static final long NO_GAME = GameWords.NO_BOUND;
+
+	private final GameWords gameWords;
+	private final ScoreKernel scoreKernel;
+	private final int wordCount;
+	private final int gameLength;
+	private final int transpositionTableMb;
+
+	/**
+	 * @param transpositionTableMb memory of the {@link TranspositionTable} of a search, 0 for none
+	 */
+	GameSearch(GameWords gameWords, int transpositionTableMb) {
+		if (gameWords.size() > Long.SIZE) {
+			throw new IllegalArgumentException("Too many words: " + gameWords.size());
+		}
+		this.gameWords = gameWords;
+		scoreKernel = gameWords.scoreKernel();
+		wordCount = gameWords.size();
+		gameLength = GameGenerator.WORDS_IN_GAME;
+		this.transpositionTableMb = transpositionTableMb;
+	}
+
+	GameSolution search() {
+		final long start = System.nanoTime();
+		final Search search = new Search();
+		search.playGreedy();
+		logger.info("Greedy game score: {}", search.bestScore);
+		search.visit(0, 0, ScoreKernel.INITIAL_STATE, 0, false);
+		logger.info("Best game score: {}, {} moves played, {} pruned in {} ms",
+					search.bestScore,
+					search.visitedNodes,
+					search.prunedNodes,
+					(System.nanoTime() - start) / 1_000_000);
+		if (search.transpositionTable != null) {
+			final TranspositionTable table = search.transpositionTable;
+			logger.info("Transposition table of {} entries: {} lookups, {} % hits, {} stores, {} evictions",
+						table.capacity(),
+						table.lookups(),
+						Math.round(table.hitRate() * 100),
+						table.stores(),
+						table.evictions());
+		}
+		return new GameSolution(search.bestScore,
+								search.bestScore < 0 ? new int[0] : search.bestWords,
+								search.bestScore < 0 ? new int[0] : search.bestSelections,
+								search.visitedNodes,
+								search.prunedNodes);
+	}
+
+	// keeps the highest values in decreasing order
+	static void insert(long[] top, long value) {
+		if (value <= top[top.length - 1]) {
+			return;
+		}
+		int position = top.length - 1;
+		while (position > 0 && top[position - 1] < value) {
+			top[position] = top[position - 1];
+			position--;
+		}
+		top[position] = value;
+	}
+
+	// NO_GAME if there are not enough words
+	static long sum(long[] top, int count) {
+		long sum = 0;
+		for (int i = 0; i < count; i++) {
+			if (top[i] == NO_GAME) {
+				return NO_GAME;
+			}
+			sum += top[i];
+		}
+		return sum;
+	}
+
+	private final class Search {
+
+		private final int[] pathWords = new int[gameLength];
+		private final int[] pathSelections = new int[gameLength];
+		private final int[] bestWords = new int[gameLength];
+		private final int[] bestSelections = new int[gameLength];
+		// moves of each depth sorted by their score, and the highest word bounds of the depth
+		private final int[][] moveWords = new int[gameLength][];
+		private final int[][] moveSelections = new int[gameLength][];
+		private final long[][] moveScores = new long[gameLength][];
+		private final long[][] topBounds = new long[gameLength][];
+		private final TranspositionTable transpositionTable = transpositionTableMb > 0 ? new TranspositionTable(transpositionTableMb) : null;
+		private long bestScore = -1;
+		private long visitedNodes = 0;
+		private long prunedNodes = 0;
+
+		private Search() {
+			final int moves = IntStream.range(0, wordCount).map(word -> gameWords.selections(word).length).sum();
+			for (int depth = 0; depth < gameLength; depth++) {
+				moveWords[depth] = new int[moves];
+				moveSelections[depth] = new int[moves];
+				moveScores[depth] = new long[moves];
+				topBounds[depth] = new long[gameLength - depth];
+			}
+		}
+
+		// plays the best scoring move of every word, a lower bound for the search
+		private void playGreedy() {
+			long usedWords = 0;
+			long state = ScoreKernel.INITIAL_STATE;
+			long score = 0;
+			boolean bonusActive = false;
+			for (int depth = 0; depth < gameLength; depth++) {
+				bonusActive = bonusActive || scoreKernel.isBonusActive(state);
+				long bestMoveScore = -1;
+				for (int word = 0; word < wordCount; word++) {
+					if ((usedWords & 1L << word) != 0) {
+						continue;
+					}
+					for (int selection : gameWords.selections(word)) {
+						final long moveScore = gameWords.score(state, word, selection, bonusActive);
+						if (moveScore > bestMoveScore) {
+							bestMoveScore = moveScore;
+							pathWords[depth] = word;
+							pathSelections[depth] = selection;
+						}
+					}
+				}
+				if (bestMoveScore < 0) {
+					return;
+				}
+				usedWords |= 1L << pathWords[depth];
+				state = scoreKernel.use(state, pathSelections[depth]);
+				score += bestMoveScore;
+			}
+			improve(score);
+		}
+
+		/**
+		 * @return upper bound of the best continuation score, exact unless moves were cut off, {@link #NO_GAME} if
+		 * the game cannot be completed
+		 */
+		private long visit(int depth, long usedWords, long state, long score, boolean bonusActive) {
+			if (depth == gameLength) {
+				if (score > bestScore) {
+					improve(score);
+				}
+				return 0;
+			}
+
+			final int remainingWords = gameLength - depth;
+			final boolean cached = transpositionTable != null && remainingWords > 1;
+			if (cached) {
+				final long cachedBound = transpositionTable.get(state, usedWords, remainingWords, bonusActive);
+				// a continuation that can beat the best game is searched again, its moves are not cached
+				if (cachedBound != TranspositionTable.MISSING && (cachedBound == NO_GAME || score + cachedBound <= bestScore)) {
+					prunedNodes++;
+					return cachedBound;
+				}
+			}
+
+			final long[] top = topBounds[depth];
+			Arrays.fill(top, NO_GAME);
+			for (int word = 0; word < wordCount; word++) {
+				if ((usedWords & 1L << word) == 0) {
+					insert(top, gameWords.bound(state, word, remainingWords));
+				}
+			}
+			final long bound = sum(top, remainingWords);
+			if (bound == NO_GAME || score + bound <= bestScore) {
+				prunedNodes++;
+				return bound;
+			}
+			// bound of the other remaining words after a move, the moved word is among the top ones or not
+			final long boundAfterMove = sum(top, remainingWords - 1);
+
+			final boolean wordBonusActive = bonusActive || scoreKernel.isBonusActive(state);
+			final int moves = sortedMoves(depth, usedWords, state, wordBonusActive);
+			long continuationBound = NO_GAME;
+			for (int move = 0; move < moves; move++) {
+				final int word = moveWords[depth][move];
+				final int selection = moveSelections[depth][move];
+				final long moveScore = moveScores[depth][move];
+				final long wordBound = gameWords.bound(state, word, remainingWords);
+				final long otherWordsBound = remainingWords == 1 || wordBound < top[remainingWords - 2] ?
+											 boundAfterMove :
+											 bound - wordBound;
+				long moveContinuationBound;
+				if (score + moveScore + otherWordsBound <= bestScore) {
+					prunedNodes++;
+					moveContinuationBound = otherWordsBound;
+				} else {
+					visitedNodes++;
+					pathWords[depth] = word;
+					pathSelections[depth] = selection;
+					moveContinuationBound = visit(depth + 1,
+												  usedWords | 1L << word,
+												  scoreKernel.use(state, selection),
+												  score + moveScore,
+												  wordBonusActive);
+				}
+				if (moveContinuationBound != NO_GAME) {
+					continuationBound = Math.max(continuationBound, moveScore + moveContinuationBound);
+				}
+			}
+
+			if (cached) {
+				transpositionTable.put(state, usedWords, remainingWords, bonusActive, continuationBound);
+			}
+			return continuationBound;
+		}
+
+		// moves of the unused words with the best scoring first
+		private int sortedMoves(int depth, long usedWords, long state, boolean bonusActive) {
+			final int[] words = moveWords[depth];
+			final int[] wordSelections = moveSelections[depth];
+			final long[] scores = moveScores[depth];
+			int moves = 0;
+			for (int word = 0; word < wordCount; word++) {
+				if ((usedWords & 1L << word) != 0) {
+					continue;
+				}
+				for (int selection : gameWords.selections(word)) {
+					final long moveScore = gameWords.score(state, word, selection, bonusActive);
+					int position = moves++;
+					while (position > 0 && scores[position - 1] < moveScore) {
+						words[position] = words[position - 1];
+						wordSelections[position] = wordSelections[position - 1];
+						scores[position] = scores[position - 1];
+						position--;
+					}
+					words[position] = word;
+					wordSelections[position] = selection;
+					scores[position] = moveScore;
+				}
+			}
+			return moves;
+		}
+
+		private void improve(long score) {
+			bestScore = score;
+			System.arraycopy(pathWords, 0, bestWords, 0, gameLength);
+			System.arraycopy(pathSelections, 0, bestSelections, 0, gameLength);
+		}
+	}
+}
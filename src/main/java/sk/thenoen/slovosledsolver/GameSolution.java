@@ -0,0 +1,11 @@
+package sk.thenoen.slovosledsolver;
+
+/**
+ * @param score          score of the game, -1 if no game can be played
+ * @param wordIndices    words of the game in the order they are played
+ * @param selections     tile masks of the words
+ * @param visitedNodes   (word, selection) moves played by the search
+ * @param prunedNodes    moves cut off without playing their continuations
+ */
+public record GameSolution(long score, int[] wordIndices, int[] selections, long visitedNodes, long prunedNodes) {
+}
@@ -0,0 +1,122 @@
+package sk.thenoen.slovosledsolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Letter trigram model of a local text corpus, used to visit likely continuations of a prefix first.
+ * Trigram, bigram and unigram estimates are interpolated, so letter pairs missing in the corpus still get an order.
+ * The counts are built once from the corpus file when the model is used for the first time.
+ */
+@Component
+public class LetterModel {
+
+	private static final Logger logger = LoggerFactory.getLogger(LetterModel.class);
+
+	// stands for the letters before the start of a word
+	public static final int WORD_START = 0;
+
+	private static final double TRIGRAM_WEIGHT = 0.6;
+	private static final double BIGRAM_WEIGHT = 0.3;
+	private static final double UNIGRAM_WEIGHT = 0.1;
+
+	private final String location;
+	private Map<Long, Integer> trigrams;
+	private Map<Long, Integer> trigramContexts; // letters following the two letters
+	private Map<Long, Integer> bigrams;
+	private Map<Integer, Integer> bigramContexts; // letters following the letter
+	private Map<Integer, Integer> unigrams;
+	private long letterCount;
+
+	public LetterModel(@Value("${words.finder.letter-model:}") String location) {
+		this.location = location;
+	}
+
+	public boolean isAvailable() {
+		return !location.isBlank() && Files.isReadable(Path.of(location));
+	}
+
+	/**
+	 * @return hash of the corpus, empty if it is not available
+	 */
+	public String digest() {
+		return Checkpoints.fileDigest(location);
+	}
+
+	/**
+	 * @param beforePrevious letter before the previous one or {@link #WORD_START}
+	 * @param previous       previous letter or {@link #WORD_START}
+	 * @return estimated probability of the letter following the two, letters are upper case code points
+	 */
+	public synchronized double probability(int beforePrevious, int previous, int letter) {
+		if (trigrams == null) {
+			count();
+		}
+		final double trigram = ratio(trigrams.get(key(beforePrevious, previous, letter)), trigramContexts.get(key(beforePrevious, previous)));
+		final double bigram = ratio(bigrams.get(key(previous, letter)), bigramContexts.get(previous));
+		final double unigram = ratio(unigrams.get(letter), letterCount);
+		return TRIGRAM_WEIGHT * trigram + BIGRAM_WEIGHT * bigram + UNIGRAM_WEIGHT * unigram;
+	}
+
+	private void count() {
+		trigrams = new HashMap<>();
+		trigramContexts = new HashMap<>();
+		bigrams = new HashMap<>();
+		bigramContexts = new HashMap<>();
+		unigrams = new HashMap<>();
+		final long start = System.nanoTime();
+		try (BufferedReader reader = Files.newBufferedReader(Path.of(location), StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int beforePrevious = WORD_START;
+				int previous = WORD_START;
+				for (int i = 0; i < line.length(); ) {
+					final int codePoint = line.codePointAt(i);
+					i += Character.charCount(codePoint);
+					if (!Character.isLetter(codePoint)) {
+						beforePrevious = WORD_START;
+						previous = WORD_START;
+						continue;
+					}
+					final int letter = Character.toUpperCase(codePoint);
+					trigrams.merge(key(beforePrevious, previous, letter), 1, Integer::sum);
+					trigramContexts.merge(key(beforePrevious, previous), 1, Integer::sum);
+					bigrams.merge(key(previous, letter), 1, Integer::sum);
+					bigramContexts.merge(previous, 1, Integer::sum);
+					unigrams.merge(letter, 1, Integer::sum);
+					letterCount++;
+					beforePrevious = previous;
+					previous = letter;
+				}
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to read letter model corpus " + location, e);
+		}
+		logger.info("Letter model built from {} letters of {} in {} ms",
+					letterCount,
+					location,
+					(System.nanoTime() - start) / 1_000_000);
+	}
+
+	private static double ratio(Integer count, Number total) {
+		return count == null || total == null || total.longValue() == 0 ? 0 : count / total.doubleValue();
+	}
+
+	private static long key(int first, int second) {
+		return (long) first << 21 | second;
+	}
+
+	private static long key(int first, int second, int third) {
+		return (long) first << 42 | (long) second << 21 | third;
+	}
+}
@@ -0,0 +1,321 @@
+package sk.thenoen.slovosledsolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import sk.thenoen.slovosledsolver.model.GameWords;
+import sk.thenoen.slovosledsolver.model.ScoreKernel;
+
+/**
+ * Monte Carlo tree search of a good game of {@link GameGenerator#WORDS_IN_GAME} words, for more words than the other
+ * solvers can handle. The tree moves are (word, selection) pairs picked by UCT, its children are added in the order
+ * of their scores, more of them the more the node is visited. A playout continues from the new node by picking the
+ * best of a few random moves until the game is complete. Playouts run in parallel, a playout in progress counts as a
+ * lost one for the nodes on its path so that the other threads explore elsewhere. The best game of all the playouts
+ * is kept, it gets better with the time given to the search.
+ */
+class MonteCarloSearch {
+
+	private static final Logger logger = LoggerFactory.getLogger(MonteCarloSearch.class);
+
+	private static final double EXPLORATION = 0.5;
+	// children of a node visited n times
+	private static final double WIDENING = 2;
+	// random moves a playout move is picked from
+	private static final int TOURNAMENT = 16;
+
+	private final GameWords gameWords;
+	private final ScoreKernel scoreKernel;
+	private final int gameLength;
+	private final int[] moveWords; // (word, selection) moves of all the words
+	private final int[] moveSelections;
+	private final int parallelism;
+	private final long timeBudgetNanos;
+	private final long maxPlayouts;
+
+	/**
+	 * @param parallelism       threads running the playouts, 0 for the number of processors
+	 * @param timeBudgetSeconds wall-clock time of the search
+	 * @param maxPlayouts       playouts of the search, 0 for as many as the time budget allows
+	 */
+	MonteCarloSearch(GameWords gameWords, int parallelism, int timeBudgetSeconds, long maxPlayouts) {
+		this.gameWords = gameWords;
+		scoreKernel = gameWords.scoreKernel();
+		gameLength = GameGenerator.WORDS_IN_GAME;
+		final IntStream.Builder wordsOfMoves = IntStream.builder();
+		final IntStream.Builder selectionsOfMoves = IntStream.builder();
+		for (int word = 0; word < gameWords.size(); word++) {
+			for (int selection : gameWords.selections(word)) {
+				wordsOfMoves.add(word);
+				selectionsOfMoves.add(selection);
+			}
+		}
+		moveWords = wordsOfMoves.build().toArray();
+		moveSelections = selectionsOfMoves.build().toArray();
+		this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		this.timeBudgetNanos = timeBudgetSeconds * 1_000_000_000L;
+		this.maxPlayouts = maxPlayouts > 0 ? maxPlayouts : Long.MAX_VALUE;
+	}
+
+	GameSolution search(SolutionListener listener) {
+		final long start = System.nanoTime();
+		final Search search = new Search(start + timeBudgetNanos, listener);
+		try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+			final List<ForkJoinTask<?>> playouts = new ArrayList<>();
+			for (int thread = 0; thread < parallelism; thread++) {
+				final SplittableRandom random = new SplittableRandom(thread);
+				playouts.add(pool.submit(() -> search.playouts(random)));
+			}
+			playouts.forEach(ForkJoinTask::join);
+		}
+		logger.info("Best game score: {}, {} playouts on {} threads, {} moves played in {} ms",
+					search.bestScore,
+					Math.min(search.playouts.get(), maxPlayouts),
+					parallelism,
+					search.playedMoves.get(),
+					(System.nanoTime() - start) / 1_000_000);
+		return search.solution();
+	}
+
+	private long wordScore(long state, int move, boolean bonusActive) {
+		return gameWords.score(state, moveWords[move], moveSelections[move], bonusActive);
+	}
+
+	private static boolean isUsed(int[] words, int count, int word) {
+		for (int i = 0; i < count; i++) {
+			if (words[i] == word) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private final class Search {
+
+		private final long deadline;
+		private final SolutionListener listener;
+		private final Node root = new Node(null, -1, ScoreKernel.INITIAL_STATE, 0, false);
+		private final int[] bestWords = new int[gameLength];
+		private final int[] bestSelections = new int[gameLength];
+		private final AtomicLong playouts = new AtomicLong();
+		private final AtomicLong playedMoves = new AtomicLong();
+		private volatile long bestScore = -1;
+		private volatile boolean stopped = false;
+
+		private Search(long deadline, SolutionListener listener) {
+			this.deadline = deadline;
+			this.listener = listener;
+		}
+
+		private void playouts(SplittableRandom random) {
+			final int[] words = new int[gameLength];
+			final int[] selections = new int[gameLength];
+			while (!stopped && System.nanoTime() - deadline < 0 && playouts.incrementAndGet() <= maxPlayouts) {
+				// the tree part of the game, down to a new node
+				Node node = root;
+				boolean newNode = false;
+				while (node.depth < gameLength && !newNode) {
+					final Node child;
+					synchronized (node) {
+						child = node.select(bestScore);
+						if (child == null) {
+							break;
+						}
+						child.virtualLosses++;
+						newNode = child.visits == 0;
+					}
+					words[node.depth] = moveWords[child.move];
+					selections[node.depth] = moveSelections[child.move];
+					node = child;
+				}
+
+				final long score = playout(node, words, selections, random);
+				playedMoves.addAndGet(node.depth);
+				if (score > bestScore) {
+					improve(score, words, selections);
+				}
+				// a game that cannot be completed is a lost one
+				final long reward = Math.max(0, score);
+				for (Node visited = node; visited.parent != null; visited = visited.parent) {
+					synchronized (visited.parent) {
+						visited.visits++;
+						visited.virtualLosses--;
+						visited.rewardSum += reward;
+					}
+				}
+				synchronized (root) {
+					root.visits++;
+				}
+			}
+		}
+
+		/**
+		 * Completes the game of the node with the best of a few random moves of the unused words.
+		 *
+		 * @return score of the game, -1 if it cannot be completed
+		 */
+		private long playout(Node node, int[] words, int[] selections, SplittableRandom random) {
+			if (moveWords.length == 0) {
+				return -1;
+			}
+			long state = node.state;
+			long score = node.score;
+			boolean bonusActive = node.bonusActive;
+			int moves = 0;
+			for (int depth = node.depth; depth < gameLength; depth++) {
+				bonusActive = bonusActive || scoreKernel.isBonusActive(state);
+				int bestMove = -1;
+				long bestMoveScore = Long.MIN_VALUE;
+				for (int i = 0; i < TOURNAMENT; i++) {
+					final int move = random.nextInt(moveWords.length);
+					if (isUsed(words, depth, moveWords[move])) {
+						continue;
+					}
+					final long moveScore = wordScore(state, move, bonusActive);
+					if (moveScore > bestMoveScore) {
+						bestMove = move;
+						bestMoveScore = moveScore;
+					}
+				}
+				if (bestMove < 0) {
+					// the random moves were all of used words, the first unused one is played
+					for (int move = 0; move < moveWords.length && bestMove < 0; move++) {
+						if (!isUsed(words, depth, moveWords[move])) {
+							bestMove = move;
+							bestMoveScore = wordScore(state, move, bonusActive);
+						}
+					}
+					if (bestMove < 0) {
+						return -1;
+					}
+				}
+				words[depth] = moveWords[bestMove];
+				selections[depth] = moveSelections[bestMove];
+				state = scoreKernel.use(state, moveSelections[bestMove]);
+				score += bestMoveScore;
+				moves++;
+			}
+			playedMoves.addAndGet(moves);
+			return score;
+		}
+
+		private synchronized void improve(long score, int[] words, int[] selections) {
+			if (score <= bestScore) {
+				return;
+			}
+			System.arraycopy(words, 0, bestWords, 0, gameLength);
+			System.arraycopy(selections, 0, bestSelections, 0, gameLength);
+			bestScore = score;
+			if (!listener.improved(solution())) {
+				stopped = true;
+			}
+		}
+
+		private synchronized GameSolution solution() {
+			return new GameSolution(bestScore,
+									bestScore < 0 ? new int[0] : bestWords.clone(),
+									bestScore < 0 ? new int[0] : bestSelections.clone(),
+									playedMoves.get(),
+									0);
+		}
+
+		/**
+		 * Children are guarded by the lock of the node, the statistics of a node by the lock of its parent.
+		 */
+		private final class Node {
+
+			private final Node parent;
+			private final int move; // of the parent, -1 for the root
+			private final int depth;
+			private final int[] words; // played by the parents and the node
+			private final long state;
+			private final long score;
+			private final boolean bonusActive; // latched before the word of the node
+			private final List<Node> children = new ArrayList<>();
+			private boolean exhausted = false; // all the moves are children
+			private long lastChildScore = Long.MAX_VALUE;
+			private int visits = 0;
+			private int virtualLosses = 0;
+			private long rewardSum = 0;
+
+			private Node(Node parent, int move, long state, long score, boolean bonusActive) {
+				this.parent = parent;
+				this.move = move;
+				this.depth = parent == null ? 0 : parent.depth + 1;
+				this.words = new int[depth];
+				if (parent != null) {
+					System.arraycopy(parent.words, 0, words, 0, parent.depth);
+					words[parent.depth] = moveWords[move];
+				}
+				this.state = state;
+				this.score = score;
+				this.bonusActive = bonusActive;
+			}
+
+			/**
+			 * @return child with the highest UCT value among the allowed ones, a new one if more are allowed, null if
+			 * there are no moves
+			 */
+			private Node select(long bestScore) {
+				final int visitCount = visits + virtualLosses;
+				if (!exhausted && children.size() < WIDENING * Math.sqrt(visitCount + 1)) {
+					final Node child = addChild();
+					if (child != null) {
+						return child;
+					}
+				}
+				final double normalization = Math.max(1, bestScore);
+				final double logVisits = Math.log(visitCount + 1);
+				Node best = null;
+				double bestValue = Double.NEGATIVE_INFINITY;
+				for (Node child : children) {
+					final int childVisits = child.visits + child.virtualLosses;
+					final double value = childVisits == 0 ?
+										 Double.POSITIVE_INFINITY :
+										 child.rewardSum / normalization / childVisits + EXPLORATION * Math.sqrt(logVisits / childVisits);
+					if (value > bestValue) {
+						best = child;
+						bestValue = value;
+					}
+				}
+				return best;
+			}
+
+			// child of the best scoring move after the ones of the existing children
+			private Node addChild() {
+				final boolean wordBonusActive = bonusActive || scoreKernel.isBonusActive(state);
+				final int lastMove = children.isEmpty() ? -1 : children.getLast().move;
+				int bestMove = -1;
+				long bestMoveScore = Long.MIN_VALUE;
+				for (int move = 0; move < moveWords.length; move++) {
+					if (isUsed(words, depth, moveWords[move])) {
+						continue;
+					}
+					final long moveScore = wordScore(state, move, wordBonusActive);
+					// moves in decreasing order of their scores, moves of the same score in increasing order
+					final boolean after = moveScore < lastChildScore || moveScore == lastChildScore && move > lastMove;
+					if (after && moveScore > bestMoveScore) {
+						bestMove = move;
+						bestMoveScore = moveScore;
+					}
+				}
+				if (bestMove < 0) {
+					exhausted = true;
+					return null;
+				}
+				lastChildScore = bestMoveScore;
+				final Node child = new Node(this, bestMove, scoreKernel.use(state, moveSelections[bestMove]), score + bestMoveScore, wordBonusActive);
+				children.add(child);
+				return child;
+			}
+		}
+	}
+}
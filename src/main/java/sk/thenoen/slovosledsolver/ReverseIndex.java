@@ -0,0 +1,212 @@
+package sk.thenoen.slovosledsolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import sk.thenoen.slovosledsolver.hash.HashTargets;
+import sk.thenoen.slovosledsolver.hash.MatchedTargets;
+
+/**
+ * Words matched by previous runs, keyed by their SHA-256. The file holds fixed-width records sorted by digest
+ * (digest, word length, UTF-8 word padded with zeros) and is memory-mapped, a target is resolved by binary search.
+ * New words are merged into a copy of the file which then atomically replaces it.
+ */
+@Component
+public class ReverseIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReverseIndex.class);
+
+	private static final int MAGIC = 0x53535249; // "SSRI"
+	private static final int HEADER_LENGTH = 8; // magic, record count
+	private static final int MAX_WORD_BYTES = 31;
+	private static final int RECORD_LENGTH = HashTargets.DIGEST_LENGTH + 1 + MAX_WORD_BYTES;
+
+	private final Path location;
+	private ByteBuffer records = ByteBuffer.allocate(0);
+	private int recordCount = 0;
+
+	public ReverseIndex(@Value("${words.finder.reverse-index:}") String location) {
+		this.location = location.isBlank() ? null : Path.of(location);
+		if (this.location != null) {
+			map();
+		}
+	}
+
+	public boolean isEnabled() {
+		return location != null;
+	}
+
+	/**
+	 * Adds the known words of all targets to the found words.
+	 *
+	 * @return number of targets resolved
+	 */
+	public synchronized int resolve(HashTargets targets, MatchedTargets matchedTargets, Collection<String> foundWords) {
+		int resolved = 0;
+		final byte[] word = new byte[MAX_WORD_BYTES];
+		for (int i = 0; i < targets.size(); i++) {
+			final byte[] digest = targets.getDigest(i);
+			if (targets.indexOf(digest) != i) {
+				continue; // repeated hash
+			}
+			// records with the same digest are adjacent, there is more of them for colliding words
+			for (int record = firstRecord(digest); record < recordCount && compareDigest(record, digest) == 0; record++) {
+				final int offset = record * RECORD_LENGTH + HashTargets.DIGEST_LENGTH;
+				final int length = records.get(offset);
+				records.get(offset + 1, word, 0, length);
+				foundWords.add(new String(word, 0, length, StandardCharsets.UTF_8));
+				if (matchedTargets.match(i)) {
+					resolved++;
+				}
+			}
+		}
+		return resolved;
+	}
+
+	/**
+	 * Stores words not present in the index yet, the file is rewritten only if there are any.
+	 */
+	public synchronized void addWords(Collection<String> words) {
+		final MessageDigest messageDigest = createMessageDigest();
+		final List<byte[]> newRecords = new ArrayList<>();
+		for (String word : words) {
+			final byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+			if (bytes.length > MAX_WORD_BYTES) {
+				logger.warn("Word {} is too long for the reverse index", word);
+				continue;
+			}
+			final byte[] record = new byte[RECORD_LENGTH];
+			System.arraycopy(messageDigest.digest(bytes), 0, record, 0, HashTargets.DIGEST_LENGTH);
+			record[HashTargets.DIGEST_LENGTH] = (byte) bytes.length;
+			System.arraycopy(bytes, 0, record, HashTargets.DIGEST_LENGTH + 1, bytes.length);
+			if (!contains(record)) {
+				newRecords.add(record);
+			}
+		}
+		if (newRecords.isEmpty()) {
+			return;
+		}
+
+		final byte[][] merged = new byte[recordCount + newRecords.size()][];
+		for (int i = 0; i < recordCount; i++) {
+			merged[i] = new byte[RECORD_LENGTH];
+			records.get(i * RECORD_LENGTH, merged[i]);
+		}
+		for (int i = 0; i < newRecords.size(); i++) {
+			merged[recordCount + i] = newRecords.get(i);
+		}
+		Arrays.sort(merged, Arrays::compareUnsigned);
+
+		int count = 0;
+		final ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + merged.length * RECORD_LENGTH);
+		buffer.position(HEADER_LENGTH);
+		for (int i = 0; i < merged.length; i++) {
+			if (i > 0 && Arrays.equals(merged[i], merged[i - 1])) {
+				continue; // the same word found twice in this run
+			}
+			buffer.put(merged[i]);
+			count++;
+		}
+		buffer.putInt(0, MAGIC).putInt(4, count).flip();
+
+		try {
+			Files.createDirectories(location.toAbsolutePath().getParent());
+			final Path temporary = Files.createTempFile(location.toAbsolutePath().getParent(), location.getFileName().toString(), ".tmp");
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				channel.force(true);
+			}
+			Files.move(temporary, location, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to store reverse index " + location, e);
+		}
+		logger.info("Reverse index {} extended by {} words to {}", location, count - recordCount, count);
+		map();
+	}
+
+	private void map() {
+		if (!Files.exists(location)) {
+			logger.info("Reverse index {} does not exist yet", location);
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(location, StandardOpenOption.READ)) {
+			final MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (file.capacity() < HEADER_LENGTH || file.getInt(0) != MAGIC
+				|| (long) file.getInt(4) * RECORD_LENGTH != file.capacity() - HEADER_LENGTH) {
+				logger.warn("Reverse index {} is corrupted, it will be rebuilt", location);
+				records = ByteBuffer.allocate(0);
+				recordCount = 0;
+				return;
+			}
+			recordCount = file.getInt(4);
+			records = file.slice(HEADER_LENGTH, file.capacity() - HEADER_LENGTH);
+			logger.info("Reverse index {} mapped ({} words)", location, recordCount);
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to map reverse index " + location, e);
+		}
+	}
+
+	// first record with a digest not less than the given one
+	private int firstRecord(byte[] digest) {
+		int low = 0;
+		int high = recordCount;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (compareDigest(middle, digest) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private int compareDigest(int record, byte[] digest) {
+		final int offset = record * RECORD_LENGTH;
+		for (int i = 0; i < HashTargets.DIGEST_LENGTH; i++) {
+			final int difference = Byte.compareUnsigned(records.get(offset + i), digest[i]);
+			if (difference != 0) {
+				return difference;
+			}
+		}
+		return 0;
+	}
+
+	private boolean contains(byte[] newRecord) {
+		final byte[] record = new byte[RECORD_LENGTH];
+		for (int i = firstRecord(newRecord); i < recordCount && compareDigest(i, newRecord) == 0; i++) {
+			records.get(i * RECORD_LENGTH, record);
+			if (Arrays.equals(record, newRecord)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static MessageDigest createMessageDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (Exception ex) {
+			throw new RuntimeException("Unable to initialize MessageDigest", ex);
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package sk.thenoen.slovosledsolver;
+
+import java.util.List;
+
+/**
+ * @param words           words matching any of the targets
+ * @param unmatchedHashes targets no word was found for, e.g. words missing in the word list of a dictionary search
+ */
+public record SearchResult(List<String> words, List<String> unmatchedHashes) {
+
+	public boolean isComplete() {
+		return unmatchedHashes.isEmpty();
+	}
+}
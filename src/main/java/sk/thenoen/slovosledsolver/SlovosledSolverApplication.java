@@ -3,27 +3,24 @@ package sk.thenoen.slovosledsolver;
 import jakarta.annotation.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HexFormat;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+import sk.thenoen.slovosledsolver.hash.HashTargets;
 import sk.thenoen.slovosledsolver.model.Bonus;
 import sk.thenoen.slovosledsolver.model.Game;
+import sk.thenoen.slovosledsolver.model.GameWords;
 import sk.thenoen.slovosledsolver.model.Tile;
+import sk.thenoen.slovosledsolver.util.Journal;
 
 @SpringBootApplication
 public class SlovosledSolverApplication implements CommandLineRunner {
@@ -31,6 +28,8 @@ public class SlovosledSolverApplication implements CommandLineRunner {
 	private static final Logger logger = LoggerFactory.getLogger(SlovosledSolverApplication.class);
 	public static final int MIN_NUMBER_OF_WORDS = 40;
 	public static final int MAX_NUMBER_OF_WORDS = 50;
+	// word combinations evaluated between two journal entries
+	private static final int GAMES_JOURNAL_UNIT = 10_000;
 
 	@Resource
 	private PageParser pageParser;
@@ -42,7 +41,50 @@ public class SlovosledSolverApplication implements CommandLineRunner {
 	private GameGenerator gameGenerator;
 
 	@Resource
-	private DataStorage dataStorage;
+	private Checkpoints checkpoints;
+
+	@Resource
+	private ClusterCoordinator clusterCoordinator;
+
+	@Resource
+	private ClusterWorker clusterWorker;
+
+	@Value("${cluster.role:STANDALONE}")
+	private ClusterRole clusterRole;
+
+	@Value("${games.solver:EXHAUSTIVE}")
+	private GamesSolver gamesSolver;
+
+	@Value("${games.transposition-table-mb:64}")
+	private int transpositionTableMb;
+
+	@Value("${games.beam-width:64}")
+	private int beamWidth;
+
+	@Value("${games.time-budget-seconds:10}")
+	private int timeBudgetSeconds;
+
+	// the beam and Monte Carlo searches stop once they reach the score, 0 for none
+	@Value("${games.target-score:0}")
+	private long targetScore;
+
+	@Value("${games.parallelism:0}")
+	private int gamesParallelism;
+
+	// playouts of the Monte Carlo search, 0 for as many as the time budget allows
+	@Value("${games.max-playouts:0}")
+	private long maxPlayouts;
+
+	public enum GamesSolver {
+		// every word set is played, see WordSetEvaluator, resumable from the journal
+		EXHAUSTIVE,
+		// moves that cannot beat the best game found so far are cut off, see GameSearch
+		BRANCH_AND_BOUND,
+		// the best game found within the time budget, see BeamSearch
+		BEAM,
+		// the best game of the playouts within the time budget, see MonteCarloSearch, plays all the found words
+		MCTS
+	}
 
 	public static void main(String[] args) {
 		SpringApplication.run(SlovosledSolverApplication.class, args);
@@ -52,15 +94,19 @@ public class SlovosledSolverApplication implements CommandLineRunner {
 	public void run(String... args) {
 		logger.info("SlovosledSolverApplication started");
 
-		final String[] hashes = pageParser.retrieveHashes();
+		if (clusterRole == ClusterRole.WORKER) {
+			clusterWorker.run();
+			logger.info("SlovosledSolverApplication finished");
+			return;
+		}
 
-		//todo: verify that this is not faster implementation
-		final HexFormat hexFormat = HexFormat.of();
-		//		final byte[] bytes = hexFormat.parseHex(hashes[0]);
-		//		final String hex = hexFormat.formatHex(bytes);
-		//		final List<byte[]> hashesAsBytes = Arrays.stream(hashes)
-		//												 .map(hexFormat::parseHex)
-		//												 .toList();
+		// the workers play word sets by rank, the other solvers run in this process only
+		if (clusterRole == ClusterRole.COORDINATOR && gamesSolver != GamesSolver.EXHAUSTIVE) {
+			throw new IllegalStateException("Games solver " + gamesSolver + " cannot be distributed, set games.solver to " + GamesSolver.EXHAUSTIVE);
+		}
+
+		final String[] hashes = pageParser.retrieveHashes();
+		final HashTargets targets = new HashTargets(hashes);
 
 		//		final List<String> grid = pageParser.retrieveGrid();
 		final List<Tile> tiles = pageParser.retrieveLetters();
@@ -70,25 +116,17 @@ public class SlovosledSolverApplication implements CommandLineRunner {
 
 		final Bonus bonus = pageParser.retrieveBonus();
 
-		final List<String> words = wordsFinder.findWords(grid, Set.of(hashes));
+		final SearchResult searchResult = clusterRole == ClusterRole.COORDINATOR ?
+										  wordsFinder.findWords(grid, targets, clusterCoordinator) :
+										  wordsFinder.findWords(grid, targets);
+		final List<String> words = searchResult.words();
 
 		logger.info("Number of parsed hashes: {}", hashes.length);
 		logger.info("Number of found words:   {}", words.size());
 
-		MessageDigest digest = null;
-		try {
-			digest = MessageDigest.getInstance("SHA-256");
-		} catch (NoSuchAlgorithmException e) {
-			throw new RuntimeException(e);
-		}
-		final List<String> hashList = new ArrayList<>();
-		Arrays.asList(hashes).forEach(h -> hashList.add(h));
-		for (String w : words) {
-			byte[] encodedHash = digest.digest(w.getBytes(StandardCharsets.UTF_8));
-			final String hex = hexFormat.formatHex(encodedHash);
-			hashList.remove(hex);
+		for (String unmatchedHash : searchResult.unmatchedHashes()) {
+			logger.info("remaining: {}", unmatchedHash);
 		}
-		hashList.forEach(h -> logger.info("remaining: {}", h));
 
 		final Map<Integer, List<String>> wordsByLength = words.stream().collect(Collectors.groupingBy(String::length));
 		final List<Integer> wordLengths = wordsByLength.keySet()
@@ -96,97 +134,126 @@ public class SlovosledSolverApplication implements CommandLineRunner {
 													   .sorted(Comparator.comparingInt(Integer::intValue).reversed())
 													   .collect(Collectors.toList());
 		List<String> selectedWords = new ArrayList<>();
-		for (int i = 0; i < wordLengths.size(); i++) {
-			if (selectedWords.size() < MIN_NUMBER_OF_WORDS &&
-				selectedWords.size() + wordsByLength.get(wordLengths.get(i)).size() <= MAX_NUMBER_OF_WORDS) {
-				final Integer wordsLength = wordLengths.get(i);
-				final List<String> wordsWithLength = wordsByLength.get(wordsLength);
-				selectedWords.addAll(wordsWithLength);
-				logger.info("Selected {} words with length {} characters", wordsWithLength.size(), wordsLength);
-			} else {
-				break;
+		// the Monte Carlo search plays all the found words, the other solvers the longest ones
+		if (gamesSolver == GamesSolver.MCTS) {
+			selectedWords.addAll(words);
+		} else {
+			for (int i = 0; i < wordLengths.size(); i++) {
+				if (selectedWords.size() < MIN_NUMBER_OF_WORDS &&
+					selectedWords.size() + wordsByLength.get(wordLengths.get(i)).size() <= MAX_NUMBER_OF_WORDS) {
+					final Integer wordsLength = wordLengths.get(i);
+					final List<String> wordsWithLength = wordsByLength.get(wordsLength);
+					selectedWords.addAll(wordsWithLength);
+					logger.info("Selected {} words with length {} characters", wordsWithLength.size(), wordsLength);
+				} else {
+					break;
+				}
 			}
 		}
 
 		logger.info("Selected {} words for games", selectedWords.size());
 
-		Map<String, List<List<Integer>>> allPossibleWordSelectionCombinations = gameGenerator.generateAllPossibleWordSelectionCombinations(tiles,
-																																		   selectedWords);
-
-		playGames(selectedWords, tiles, bonus, allPossibleWordSelectionCombinations);
+		if (clusterRole == ClusterRole.COORDINATOR) {
+			clusterCoordinator.playGames(selectedWords, tiles, bonus);
+		} else {
+			final Map<String, int[]> wordSelections = gameGenerator.findDistinctWordsSelections(tiles, selectedWords);
+
+			switch (gamesSolver) {
+				case EXHAUSTIVE -> playGames(selectedWords, tiles, bonus, wordSelections);
+				case BRANCH_AND_BOUND -> {
+					final GameSolution solution = new GameSearch(new GameWords(selectedWords, tiles, bonus, wordSelections), transpositionTableMb).search();
+					logger.info("Found best score: {} for words {}",
+								solution.score(),
+								Arrays.stream(solution.wordIndices()).mapToObj(selectedWords::get).toList());
+				}
+				case BEAM -> playBeamSearch(selectedWords, tiles, bonus, wordSelections).printScore();
+				case MCTS -> playMonteCarloSearch(selectedWords, tiles, bonus, wordSelections).printScore();
+			}
+		}
 
 		logger.info("SlovosledSolverApplication finished");
 	}
 
+	public Game playBeamSearch(List<String> words, List<Tile> tiles, Bonus bonus, Map<String, int[]> wordSelections) {
+		final BeamSearch beamSearch = new BeamSearch(new GameWords(words, tiles, bonus, wordSelections), beamWidth, timeBudgetSeconds);
+		return toGame(words, tiles, bonus, beamSearch.search(improved -> logImprovement(words, improved)));
+	}
+
+	public Game playMonteCarloSearch(List<String> words, List<Tile> tiles, Bonus bonus, Map<String, int[]> wordSelections) {
+		final MonteCarloSearch monteCarloSearch = new MonteCarloSearch(new GameWords(words, tiles, bonus, wordSelections), gamesParallelism, timeBudgetSeconds, maxPlayouts);
+		return toGame(words, tiles, bonus, monteCarloSearch.search(improved -> logImprovement(words, improved)));
+	}
+
+	// false once the target score is reached
+	private boolean logImprovement(List<String> words, GameSolution improved) {
+		logger.info("Found best score: {} for words {}",
+					improved.score(),
+					Arrays.stream(improved.wordIndices()).mapToObj(words::get).toList());
+		return targetScore <= 0 || improved.score() < targetScore;
+	}
+
+	private Game toGame(List<String> words, List<Tile> tiles, Bonus bonus, GameSolution solution) {
+		final List<String> gameWords = new ArrayList<>();
+		final List<List<Integer>> gameSelections = new ArrayList<>();
+		for (int i = 0; i < solution.wordIndices().length; i++) {
+			final String word = words.get(solution.wordIndices()[i]);
+			gameWords.add(word);
+			gameSelections.add(gameGenerator.toWordSelection(tiles, word, solution.selections()[i]));
+		}
+		final Game game = new Game(tiles, bonus, gameWords, gameSelections);
+		game.play();
+		return game;
+	}
+
 	public Map<List<String>, List<List<List<Integer>>>> playGames(List<String> words,
 																  List<Tile> tiles,
 																  Bonus bonus,
-																  Map<String, List<List<Integer>>> allPossibleWordsSelections) {
-		final Stream<String> wordIndexCombinationStream = dataStorage.readWordIndexCombinationsFromDisk();
-
-		long wordIndexCombinationCount = 1;
-		for (int i = 0; i < 5; i++) {
-			wordIndexCombinationCount *= words.size() - i;
+																  Map<String, int[]> wordSelections) {
+		final long wordSetCount = WordCombinations.countSets(words.size(), GameGenerator.WORDS_IN_GAME);
+		final WordSetEvaluator wordSetEvaluator = new WordSetEvaluator(new GameWords(words, tiles, bonus, wordSelections));
+
+		final Journal journal = checkpoints.open("word-sets",
+												 String.join(",", words),
+												 tiles.stream().map(t -> t.getLetter() + t.getValue()).collect(Collectors.joining(",")),
+												 bonus.getPattern() + "," + bonus.getValue() + "," + bonus.getIndex());
+		// entries: word sets evaluated, best score, its word combination
+		long evaluatedSets = 0;
+		long bestScore = 0;
+		String bestWordIndexCombination = "";
+		if (!journal.entries().isEmpty()) {
+			final String[] lastEntry = journal.entries().getLast();
+			evaluatedSets = Long.parseLong(lastEntry[0]);
+			bestScore = Long.parseLong(lastEntry[1]);
+			bestWordIndexCombination = lastEntry[2];
+			logger.info("Skipping {} evaluated word sets, best score so far: {} for word combination {}",
+						evaluatedSets,
+						bestScore,
+						bestWordIndexCombination);
 		}
 
-		long bestScore = 0;
-		long currentIndex = 0;
 		long progress = -1;
-		final Iterator<String> iterator = wordIndexCombinationStream.iterator();
-		while (iterator.hasNext()) {
-			final String wordIndexCombination = iterator.next();
-			final List<Short> indicesOfSelectedWords = Arrays.stream(wordIndexCombination.split(","))
-															 .map(Short::parseShort)
-															 .toList();
-			final List<List<List<Integer>>> wordSelectionCombinations = generateWordSelectionCombinations(0,
-																										  words,
-																										  indicesOfSelectedWords,
-																										  new ArrayList<>(new ArrayList<>()),
-																										  allPossibleWordsSelections);
-			//			logger.info("Found {} possible word selection combinations for word combination {}", wordSelectionCombinations.size(), wordIndexCombination);
-
-			currentIndex++;
-			for (List<List<Integer>> wordSelectionCombination : wordSelectionCombinations) {
-				final List<String> selectedWords = indicesOfSelectedWords.stream()
-																		 .map(words::get)
-																		 .toList();
-				final Game game = new Game(tiles, bonus, selectedWords, wordSelectionCombination);
-				final long score = game.play();
-
-				if (score > bestScore) {
-					bestScore = score;
-//					logger.info("Found best score: {} for word combination {}", bestScore, selectedWords);
-					logger.info("Found best score: {} for word combination {}", bestScore, wordIndexCombination);
-				}
+		// every order of a word set is played by the set evaluator, only the best one is looked up for the journal
+		for (long fromIndex = evaluatedSets; fromIndex < wordSetCount; fromIndex += GAMES_JOURNAL_UNIT) {
+			final long toIndex = Math.min(fromIndex + GAMES_JOURNAL_UNIT, wordSetCount);
+			final long[] best = wordSetEvaluator.evaluate(fromIndex, toIndex);
+			if (best[0] > bestScore) {
+				bestScore = best[0];
+				bestWordIndexCombination = Arrays.stream(wordSetEvaluator.bestOrder(best[1]))
+												 .mapToObj(String::valueOf)
+												 .collect(Collectors.joining(","));
+				logger.info("Found best score: {} for word combination {}", bestScore, bestWordIndexCombination);
 			}
 
-			long newProgress = (currentIndex * 100) / wordIndexCombinationCount;
-			if (newProgress != progress || progress == -1) {
+			journal.append(String.valueOf(toIndex), String.valueOf(bestScore), bestWordIndexCombination);
+
+			long newProgress = (toIndex * 100) / wordSetCount;
+			if (newProgress != progress) {
 				logger.info("Progress: {} %", newProgress);
 				progress = newProgress;
 			}
 		}
+		journal.complete();
 
 		return null;
 	}
-
-	private List<List<List<Integer>>> generateWordSelectionCombinations(int index,
-																		List<String> words,
-																		List<Short> wordIndexCombination,
-																		List<List<Integer>> prefix,
-																		Map<String, List<List<Integer>>> allPossibleWordsSelections) {
-		if (index == wordIndexCombination.size()) {
-			return List.of(prefix);
-		}
-
-		List<List<List<Integer>>> result = new ArrayList<>();
-
-		final String word = words.get(wordIndexCombination.get(index));
-		for (List<Integer> wordSelection : allPossibleWordsSelections.get(word)) {
-			List<List<Integer>> newPrefix = new ArrayList<>(prefix);
-			newPrefix.add(wordSelection);
-			result.addAll(generateWordSelectionCombinations(index + 1, words, wordIndexCombination, newPrefix, allPossibleWordsSelections));
-		}
-		return result;
-	}
 }
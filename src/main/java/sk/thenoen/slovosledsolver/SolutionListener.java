@@ -0,0 +1,13 @@
+package sk.thenoen.slovosledsolver;
+
+/**
+ * Notified of every better game found by an anytime search, see {@link BeamSearch} and {@link MonteCarloSearch}.
+ */
+@FunctionalInterface
+interface SolutionListener {
+
+	/**
+	 * @return false to stop the search with this game
+	 */
+	boolean improved(GameSolution solution);
+}
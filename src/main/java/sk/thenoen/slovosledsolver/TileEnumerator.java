@@ -0,0 +1,404 @@
+package sk.thenoen.slovosledsolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+import sk.thenoen.slovosledsolver.hash.BatchHasher;
+import sk.thenoen.slovosledsolver.hash.HashBackend;
+import sk.thenoen.slovosledsolver.hash.HashTargets;
+import sk.thenoen.slovosledsolver.hash.MatchedTargets;
+import sk.thenoen.slovosledsolver.hash.Sha256;
+import sk.thenoen.slovosledsolver.hash.WordHasher;
+import sk.thenoen.slovosledsolver.util.Journal;
+
+/**
+ * Allocation-free enumeration of tile variations. Used tiles are tracked in a bit mask and the candidate word is kept
+ * in a byte buffer reused by the whole subtree of a task, each tile is encoded to UTF-8 only once.
+ * <p>
+ * A pass hashes the words of a range of lengths on the way down, each prefix is expanded once for all of them. Words
+ * are enumerated by increasing length, one length per pass, and once every target is matched the search stops, so
+ * the most expensive long words are not hashed at all. Collision hunting never stops early, so a single pass matches
+ * all the lengths.
+ * With a {@link LetterModel} the children of a node are visited from the most likely continuation of the prefix.
+ * With a {@link WordTrie} only prefixes of its words are expanded and only its words are hashed.
+ * <p>
+ * Every pass is split into units by the first two tiles. Found words and finished units are recorded in a journal,
+ * a resumed search skips the finished units. Units are also the chunks of a search distributed over a cluster.
+ */
+class TileEnumerator {
+
+	private static final Logger logger = LoggerFactory.getLogger(TileEnumerator.class);
+
+	static final int MIN_WORD_LENGTH = 3;
+	static final int MAX_WORD_LENGTH = 12;
+
+	// journal entries
+	static final String FOUND_WORD = "word";
+	static final String FINISHED_UNIT = "unit";
+
+	private final byte[][] tileBytes;
+	private final int[] previousSameLetter; // previous tile with the same letter, -1 for the first one
+	private final int[][] childOrders; // tiles in the order of visiting, by the two previous tiles - see childOrder
+	private final WordTrie trie; // null enumerates all variations
+	private final int[] tileLetters; // letter of the tile in the trie
+	private final int maxLength;
+	private final HashTargets targets;
+	private final HashBackend hashBackend;
+	private final MatchedTargets matchedTargets;
+	private final boolean collisionHunting;
+	private final Journal journal;
+	private final Collection<String> foundWords;
+	private final int wordCapacity;
+
+	TileEnumerator(List<String> alphabet,
+				   HashTargets targets,
+				   HashBackend hashBackend,
+				   MatchedTargets matchedTargets,
+				   boolean collisionHunting,
+				   LetterModel letterModel,
+				   WordTrie trie,
+				   Journal journal,
+				   Collection<String> foundWords) {
+		if (alphabet.size() > Integer.SIZE - 1) {
+			throw new IllegalArgumentException("Too many tiles: " + alphabet.size());
+		}
+		this.targets = targets;
+		this.hashBackend = hashBackend.resolve();
+		this.matchedTargets = matchedTargets;
+		this.collisionHunting = collisionHunting;
+		this.trie = trie;
+		this.journal = journal;
+		this.foundWords = foundWords;
+		maxLength = Math.min(alphabet.size(), MAX_WORD_LENGTH);
+
+		tileBytes = new byte[alphabet.size()][];
+		previousSameLetter = new int[alphabet.size()];
+		tileLetters = new int[alphabet.size()];
+		int maxTileBytes = 0;
+		for (int i = 0; i < alphabet.size(); i++) {
+			tileBytes[i] = alphabet.get(i).getBytes(StandardCharsets.UTF_8);
+			maxTileBytes = Math.max(maxTileBytes, tileBytes[i].length);
+			previousSameLetter[i] = alphabet.subList(0, i).lastIndexOf(alphabet.get(i));
+			tileLetters[i] = trie != null ? trie.letterIndex(alphabet.get(i)) : -1;
+		}
+		wordCapacity = maxTileBytes * maxLength;
+
+		childOrders = new int[(alphabet.size() + 1) * (alphabet.size() + 1)][];
+		if (letterModel.isAvailable()) {
+			orderChildren(alphabet, letterModel);
+		} else {
+			final int[] gridOrder = new int[alphabet.size()];
+			Arrays.setAll(gridOrder, tile -> tile);
+			Arrays.fill(childOrders, gridOrder);
+		}
+	}
+
+	private void orderChildren(List<String> alphabet, LetterModel letterModel) {
+		final int[] letters = new int[alphabet.size() + 1];
+		letters[0] = LetterModel.WORD_START;
+		for (int i = 0; i < alphabet.size(); i++) {
+			letters[i + 1] = Character.toUpperCase(alphabet.get(i).codePointAt(0));
+		}
+		for (int beforePrevious = 0; beforePrevious <= alphabet.size(); beforePrevious++) {
+			for (int previous = 0; previous <= alphabet.size(); previous++) {
+				final double[] probabilities = new double[alphabet.size()];
+				for (int tile = 0; tile < alphabet.size(); tile++) {
+					probabilities[tile] = letterModel.probability(letters[beforePrevious], letters[previous], letters[tile + 1]);
+				}
+				childOrders[beforePrevious * (alphabet.size() + 1) + previous] =
+						IntStream.range(0, alphabet.size())
+												  .boxed()
+												  .sorted(Comparator.comparingDouble(tile -> -probabilities[tile]))
+												  .mapToInt(Integer::intValue)
+												  .toArray();
+			}
+		}
+	}
+
+	// tiles are shifted by one in the index, 0 stands for the start of the word
+	private int[] childOrder(Cursor cursor, int depth) {
+		final int previous = depth > 0 ? cursor.tiles[depth - 1] + 1 : 0;
+		final int beforePrevious = depth > 1 ? cursor.tiles[depth - 2] + 1 : 0;
+		return childOrders[beforePrevious * (tileBytes.length + 1) + previous];
+	}
+
+	void enumerate(ForkJoinPool pool) {
+		final Set<String> finishedUnits = finishedUnits();
+		for (int[] pass : passes()) {
+			if (isStopped()) {
+				logger.info("All targets matched, words longer than {} letters are skipped", pass[0] - 1);
+				return;
+			}
+			final List<SubtreeTask> units = units(pass[0], pass[1], finishedUnits);
+			pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(units)));
+			journal.flush();
+		}
+	}
+
+	/**
+	 * @return units of all the passes not finished yet in the order of enumeration, for other processes to enumerate
+	 * them - see {@link #found(WordHasher, String)} and {@link #finished(String)}
+	 */
+	List<String> units() {
+		final Set<String> finishedUnits = finishedUnits();
+		final List<String> units = new ArrayList<>();
+		for (int[] pass : passes()) {
+			for (SubtreeTask task : units(pass[0], pass[1], finishedUnits)) {
+				units.add(task.unit);
+			}
+		}
+		return units;
+	}
+
+	// hashers are not thread-safe, every thread taking found words needs its own
+	WordHasher createHasher() {
+		return hashBackend.createHasher(targets);
+	}
+
+	/**
+	 * Takes a word found by another process if it matches a target.
+	 *
+	 * @param hasher of this thread, see {@link #createHasher()}
+	 */
+	void found(WordHasher hasher, String word) {
+		final byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+		final int index = hasher.find(bytes);
+		if (index >= 0) {
+			found(bytes, bytes.length, index);
+		}
+	}
+
+	// a stopped unit skipped part of its subtree, it is enumerated again on resume
+	void finished(String unit) {
+		if (!isStopped()) {
+			journal.append(FINISHED_UNIT, unit);
+		}
+	}
+
+	private Set<String> finishedUnits() {
+		final Set<String> finishedUnits = new HashSet<>();
+		for (String[] entry : journal.entries()) {
+			if (entry[0].equals(FINISHED_UNIT)) {
+				finishedUnits.add(entry[1]);
+			}
+		}
+		return finishedUnits;
+	}
+
+	// shortest and longest words of each pass, one length per pass only pays off if the search can stop early
+	private List<int[]> passes() {
+		if (collisionHunting) {
+			return List.<int[]>of(new int[]{MIN_WORD_LENGTH, maxLength});
+		}
+		return IntStream.rangeClosed(MIN_WORD_LENGTH, maxLength).mapToObj(length -> new int[]{length, length}).toList();
+	}
+
+	/**
+	 * Enumerates a single unit returned by {@link #units()}.
+	 */
+	void enumerate(ForkJoinPool pool, String unit) {
+		final String[] parts = unit.split(":");
+		final int first = Integer.parseInt(parts[2]);
+		final int second = Integer.parseInt(parts[3]);
+		pool.invoke(new SubtreeTask(new int[]{first, second},
+									1 << first | 1 << second,
+									Integer.parseInt(parts[0]),
+									Integer.parseInt(parts[1]),
+									unit));
+	}
+
+	private List<SubtreeTask> units(int minLength, int maxLength, Set<String> finishedUnits) {
+		final List<SubtreeTask> units = new ArrayList<>();
+		final Cursor cursor = new Cursor(minLength, maxLength, wordCapacity, null, null);
+		for (int first : childOrder(cursor, 0)) {
+			if (!isExpandable(0, first) || !isWordPrefix(cursor, 0, first)) {
+				continue;
+			}
+			push(cursor, 0, first);
+			for (int second : childOrder(cursor, 1)) {
+				if (isExpandable(1 << first, second) && isWordPrefix(cursor, 1, second)) {
+					final String unit = minLength + ":" + maxLength + ":" + first + ":" + second;
+					if (!finishedUnits.contains(unit)) {
+						units.add(new SubtreeTask(new int[]{first, second}, 1 << first | 1 << second, minLength, maxLength, unit));
+					}
+				}
+			}
+		}
+		return units;
+	}
+
+	boolean isStopped() {
+		return !collisionHunting && matchedTargets.isComplete();
+	}
+
+	private void visit(Cursor cursor, int usedTiles, int depth) {
+		if (depth >= cursor.minLength && (trie == null || trie.isWord(cursor.nodes[depth]))) {
+			hash(cursor, depth);
+		}
+		if (depth == cursor.maxLength || isStopped()) {
+			return;
+		}
+
+		if (WordsFinder.shouldSplit(depth, cursor.maxLength)) {
+			split(cursor, usedTiles, depth);
+			return;
+		}
+
+		for (int tile : childOrder(cursor, depth)) {
+			if (isExpandable(usedTiles, tile) && isWordPrefix(cursor, depth, tile)) {
+				push(cursor, depth, tile);
+				visit(cursor, usedTiles | 1 << tile, depth + 1);
+			}
+		}
+	}
+
+	// Tiles with the same letter are interchangeable - they are used in index order,
+	// so every distinct letter sequence is generated exactly once.
+	private boolean isExpandable(int usedTiles, int tile) {
+		if ((usedTiles & 1 << tile) != 0) {
+			return false;
+		}
+		final int previous = previousSameLetter[tile];
+		return previous < 0 || (usedTiles & 1 << previous) != 0;
+	}
+
+	private boolean isWordPrefix(Cursor cursor, int depth, int tile) {
+		return trie == null || trie.child(cursor.nodes[depth], tileLetters[tile]) >= 0;
+	}
+
+	private void split(Cursor cursor, int usedTiles, int depth) {
+		final List<SubtreeTask> tasks = new ArrayList<>();
+		for (int tile : childOrder(cursor, depth)) {
+			if (isExpandable(usedTiles, tile) && isWordPrefix(cursor, depth, tile)) {
+				final int[] prefix = new int[depth + 1];
+				System.arraycopy(cursor.tiles, 0, prefix, 0, depth);
+				prefix[depth] = tile;
+				tasks.add(new SubtreeTask(prefix, usedTiles | 1 << tile, cursor.minLength, cursor.maxLength, null));
+			}
+		}
+		ForkJoinTask.invokeAll(tasks);
+	}
+
+	private void push(Cursor cursor, int depth, int tile) {
+		final byte[] bytes = tileBytes[tile];
+		final int offset = cursor.lengths[depth];
+		System.arraycopy(bytes, 0, cursor.word, offset, bytes.length);
+		cursor.lengths[depth + 1] = offset + bytes.length;
+		cursor.tiles[depth] = tile;
+		if (trie != null) {
+			cursor.nodes[depth + 1] = trie.child(cursor.nodes[depth], tileLetters[tile]);
+		}
+		cursor.unchangedLength = Math.min(cursor.unchangedLength, offset);
+	}
+
+	private void hash(Cursor cursor, int depth) {
+		final int length = cursor.lengths[depth];
+		final BatchHasher batch = cursor.batch;
+		if (batch != null) {
+			// a batch spans siblings and neighbouring subtrees
+			System.arraycopy(cursor.word, 0, batch.message(cursor.batchSize), 0, length);
+			batch.setLength(cursor.batchSize, length);
+			if (++cursor.batchSize == batch.lanes()) {
+				flush(cursor);
+			}
+			return;
+		}
+
+		final int index = cursor.hasher.find(cursor.word, length, cursor.unchangedLength);
+		cursor.unchangedLength = Integer.MAX_VALUE;
+		if (index >= 0) {
+			found(cursor.word, length, index);
+		}
+	}
+
+	private void flush(Cursor cursor) {
+		final BatchHasher batch = cursor.batch;
+		int matches = batch.hash(cursor.batchSize);
+		while (matches != 0) {
+			final int lane = Integer.numberOfTrailingZeros(matches);
+			matches &= matches - 1;
+			found(batch.message(lane), batch.length(lane), batch.targetIndex(lane));
+		}
+		cursor.batchSize = 0;
+	}
+
+	private void found(byte[] buffer, int length, int targetIndex) {
+		final String word = new String(buffer, 0, length, StandardCharsets.UTF_8);
+		if (matchedTargets.match(targetIndex)) {
+			logger.debug("Found word: {} -> {}", word, targets.getHash(targetIndex));
+		} else {
+			logger.debug("Found colliding word: {} -> {}", word, targets.getHash(targetIndex));
+		}
+		foundWords.add(word);
+		journal.append(FOUND_WORD, word);
+	}
+
+	// A waiting worker may run other tasks while joining, so every task has its own cursor instead of a per-thread one.
+	private final class SubtreeTask extends RecursiveAction {
+
+		private final int[] prefix;
+		private final int usedTiles;
+		private final int minLength;
+		private final int maxLength;
+		private final String unit; // null for the parts of a unit
+
+		private SubtreeTask(int[] prefix, int usedTiles, int minLength, int maxLength, String unit) {
+			this.prefix = prefix;
+			this.usedTiles = usedTiles;
+			this.minLength = minLength;
+			this.maxLength = maxLength;
+			this.unit = unit;
+		}
+
+		@Override
+		protected void compute() {
+			final BatchHasher batch = wordCapacity <= Sha256.MAX_MESSAGE_LENGTH ? hashBackend.createBatchHasher(targets) : null;
+			final Cursor cursor = new Cursor(minLength, maxLength, wordCapacity, hashBackend.createHasher(targets), batch);
+			for (int i = 0; i < prefix.length; i++) {
+				push(cursor, i, prefix[i]);
+			}
+			visit(cursor, usedTiles, prefix.length);
+			if (cursor.batchSize > 0) {
+				flush(cursor);
+			}
+			if (unit != null) {
+				finished(unit);
+			}
+		}
+	}
+
+	private static final class Cursor {
+
+		private final int minLength; // lengths of the words hashed in this pass
+		private final int maxLength;
+		private final byte[] word;
+		private final int[] lengths = new int[MAX_WORD_LENGTH + 1]; // byte length of the word at each depth
+		private final int[] tiles = new int[MAX_WORD_LENGTH];
+		private final int[] nodes = new int[MAX_WORD_LENGTH + 1]; // trie node of the word at each depth
+		private final WordHasher hasher;
+		private int unchangedLength = 0; // bytes of the word not written since the last hash
+		private final BatchHasher batch;
+		private int batchSize = 0;
+
+		private Cursor(int minLength, int maxLength, int wordCapacity, WordHasher hasher, BatchHasher batch) {
+			this.minLength = minLength;
+			this.maxLength = maxLength;
+			word = new byte[wordCapacity];
+			this.hasher = hasher;
+			this.batch = batch;
+		}
+	}
+}
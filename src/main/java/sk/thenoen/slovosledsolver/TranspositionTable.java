@@ -0,0 +1,121 @@
+package sk.thenoen.slovosledsolver;
+
+/**
+ * Bounded cache of upper bounds of game continuations for {@link GameSearch}. Different move orders of the same words
+ * and selections leave the tiles in the same state, the continuation depends only on the tile state, the used words
+ * and the bonus flag. Entries live in buckets of two, a full bucket evicts the entry of the shallower continuation.
+ * <p>
+ * Not thread-safe, every search has a table of its own.
+ */
+class TranspositionTable {
+
+	static final long MISSING = Long.MAX_VALUE;
+
+	private static final int ENTRY_BYTES = 3 * Long.BYTES + Integer.BYTES;
+	private static final int EMPTY = 0;
+
+	private final int bucketMask;
+	private final long[] states;
+	private final long[] usedWords;
+	private final long[] values;
+	private final int[] keys; // remaining words and bonus flag, EMPTY for an unused slot
+	private long lookups = 0;
+	private long hits = 0;
+	private long stores = 0;
+	private long evictions = 0;
+
+	/**
+	 * @param megabytes memory of the table, rounded down to a power of two buckets
+	 */
+	TranspositionTable(int megabytes) {
+		final long entries = Math.max(2, (long) megabytes * 1024 * 1024 / ENTRY_BYTES);
+		final int buckets = Integer.highestOneBit((int) Math.min(entries / 2, 1 << 29));
+		bucketMask = buckets - 1;
+		states = new long[2 * buckets];
+		usedWords = new long[2 * buckets];
+		values = new long[2 * buckets];
+		keys = new int[2 * buckets];
+	}
+
+	/**
+	 * @return upper bound of the best continuation score, {@link #MISSING} if there is none
+	 */
+	long get(long state, long words, int remainingWords, boolean bonusActive) {
+		lookups++;
+		final int key = key(remainingWords, bonusActive);
+		final int slot = bucket(state, words, key);
+		for (int i = slot; i < slot + 2; i++) {
+			if (keys[i] == key && states[i] == state && usedWords[i] == words) {
+				hits++;
+				return values[i];
+			}
+		}
+		return MISSING;
+	}
+
+	void put(long state, long words, int remainingWords, boolean bonusActive, long value) {
+		stores++;
+		final int key = key(remainingWords, bonusActive);
+		final int slot = bucket(state, words, key);
+		int target = -1;
+		for (int i = slot; i < slot + 2; i++) {
+			if (keys[i] == key && states[i] == state && usedWords[i] == words) {
+				// both are upper bounds, the lower one is tighter
+				values[i] = Math.min(values[i], value);
+				return;
+			}
+			if (keys[i] == EMPTY) {
+				target = i;
+			}
+		}
+		if (target < 0) {
+			target = remainingWords(keys[slot]) <= remainingWords(keys[slot + 1]) ? slot : slot + 1;
+			evictions++;
+		}
+		keys[target] = key;
+		states[target] = state;
+		usedWords[target] = words;
+		values[target] = value;
+	}
+
+	long lookups() {
+		return lookups;
+	}
+
+	long hits() {
+		return hits;
+	}
+
+	long stores() {
+		return stores;
+	}
+
+	long evictions() {
+		return evictions;
+	}
+
+	int capacity() {
+		return keys.length;
+	}
+
+	double hitRate() {
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+	private int bucket(long state, long words, int key) {
+		long hash = state * 0x9E3779B97F4A7C15L ^ words * 0xC2B2AE3D27D4EB4FL ^ key;
+		hash ^= hash >>> 31;
+		hash *= 0xBF58476D1CE4E5B9L;
+		hash ^= hash >>> 29;
+		return ((int) hash & bucketMask) << 1;
+	}
+
+	// marked so that a key is never EMPTY
+	private static int key(int remainingWords, boolean bonusActive) {
+		return remainingWords << 1 | (bonusActive ? 1 : 0) | 1 << 16;
+	}
+
+	private static int remainingWords(int key) {
+		return (key & 0xffff) >>> 1;
+	}
+}
@@ -0,0 +1,153 @@
+package sk.thenoen.slovosledsolver;
+
+/**
+ * Ordered selections of distinct word indices, ranked in lexicographic order. The selections are derived from
+ * their rank or from the previous selection by arithmetic only, a rank range is a self-contained chunk of the games
+ * and no combination list is ever stored.
+ * <p>
+ * Unordered sets of word indices are ranked the same way, as their increasing index sequences.
+ */
+final class WordCombinations {
+
+	private WordCombinations() {
+	}
+
+	/**
+	 * @return number of ordered selections of {@code length} out of {@code words} indices
+	 */
+	static long count(int words, int length) {
+		long count = 1;
+		for (int i = 0; i < length; i++) {
+			count *= words - i;
+		}
+		return count;
+	}
+
+	/**
+	 * Fills the combination with the selection of the given rank, its length is the length of the selection.
+	 */
+	static void unrank(long rank, int words, int[] combination) {
+		if (words > Long.SIZE) {
+			throw new IllegalArgumentException("Too many words: " + words);
+		}
+		long usedIndices = 0;
+		for (int position = 0; position < combination.length; position++) {
+			final long blockSize = count(words - position - 1, combination.length - position - 1);
+			int skipped = (int) (rank / blockSize);
+			rank %= blockSize;
+
+			int index = 0;
+			while ((usedIndices & 1L << index) != 0 || skipped-- > 0) {
+				index++;
+			}
+			combination[position] = index;
+			usedIndices |= 1L << index;
+		}
+	}
+
+	/**
+	 * @return rank of the selection, inverse of {@link #unrank(long, int, int[])}
+	 */
+	static long rank(int[] combination, int words) {
+		long rank = 0;
+		long usedIndices = 0;
+		for (int position = 0; position < combination.length; position++) {
+			final int index = combination[position];
+			final long skipped = Long.bitCount(~usedIndices & ((1L << index) - 1));
+			rank += skipped * count(words - position - 1, combination.length - position - 1);
+			usedIndices |= 1L << index;
+		}
+		return rank;
+	}
+
+	/**
+	 * Advances the combination to the selection of the next rank.
+	 *
+	 * @return {@code false} if the combination was the last one, it is left unchanged then
+	 */
+	static boolean next(int[] combination, int words) {
+		final long wordsMask = words == Long.SIZE ? -1L : (1L << words) - 1;
+		long usedIndices = 0;
+		for (int index : combination) {
+			usedIndices |= 1L << index;
+		}
+		for (int position = combination.length - 1; position >= 0; position--) {
+			final int index = combination[position];
+			usedIndices &= ~(1L << index);
+			final long greaterIndices = ~usedIndices & wordsMask & -(2L << index);
+			if (greaterIndices != 0) {
+				// the smallest greater index, followed by the smallest unused indices in increasing order
+				combination[position] = Long.numberOfTrailingZeros(greaterIndices);
+				usedIndices |= 1L << combination[position];
+				for (int following = position + 1; following < combination.length; following++) {
+					combination[following] = Long.numberOfTrailingZeros(~usedIndices);
+					usedIndices |= 1L << combination[following];
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return number of sets of {@code length} out of {@code words} indices
+	 */
+	static long countSets(int words, int length) {
+		if (length > words) {
+			return 0;
+		}
+		long count = 1;
+		for (int i = 0; i < length; i++) {
+			count = count * (words - i) / (i + 1);
+		}
+		return count;
+	}
+
+	/**
+	 * Fills the set with the increasing indices of the set of the given rank, its length is the length of the set.
+	 */
+	static void unrankSet(long rank, int words, int[] set) {
+		int index = 0;
+		for (int position = 0; position < set.length; position++) {
+			long blockSize;
+			while (rank >= (blockSize = countSets(words - index - 1, set.length - position - 1))) {
+				rank -= blockSize;
+				index++;
+			}
+			set[position] = index++;
+		}
+	}
+
+	/**
+	 * @return rank of the set of increasing indices, inverse of {@link #unrankSet(long, int, int[])}
+	 */
+	static long rankSet(int[] set, int words) {
+		long rank = 0;
+		int index = 0;
+		for (int position = 0; position < set.length; position++) {
+			for (; index < set[position]; index++) {
+				rank += countSets(words - index - 1, set.length - position - 1);
+			}
+			index++;
+		}
+		return rank;
+	}
+
+	/**
+	 * Advances the set to the set of the next rank.
+	 *
+	 * @return {@code false} if the set was the last one, it is left unchanged then
+	 */
+	static boolean nextSet(int[] set, int words) {
+		for (int position = set.length - 1; position >= 0; position--) {
+			if (set[position] < words - set.length + position) {
+				set[position]++;
+				for (int following = position + 1; following < set.length; following++) {
+					set[following] = set[following - 1] + 1;
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,151 @@
+package sk.thenoen.slovosledsolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Local word list, one word per line in UTF-8 (hunspell {@code .dic} files work too, affix flags after '/' are ignored).
+ * The file is memory-mapped and scanned in place - only the words which can be spelled from the tiles are decoded.
+ */
+@Component
+public class WordList {
+
+	private static final Logger logger = LoggerFactory.getLogger(WordList.class);
+
+	private final String location;
+	private MappedByteBuffer words;
+
+	public WordList(@Value("${words.finder.word-list:}") String location) {
+		this.location = location;
+	}
+
+	public boolean isAvailable() {
+		return !location.isBlank() && Files.isReadable(Path.of(location));
+	}
+
+	/**
+	 * @return hash of the list, empty if it is not available
+	 */
+	public String digest() {
+		return Checkpoints.fileDigest(location);
+	}
+
+	/**
+	 * @return words of the list that can be spelled from the tiles, in upper case like the tiles
+	 */
+	public List<String> spellableWords(List<String> alphabet) {
+		final MappedByteBuffer buffer = map();
+
+		final int[] letters = new int[alphabet.size()];
+		final int[] available = new int[alphabet.size()];
+		int letterCount = 0;
+		for (String tile : alphabet) {
+			final int letter = Character.toUpperCase(tile.codePointAt(0));
+			int index = indexOf(letters, letterCount, letter);
+			if (index < 0) {
+				index = letterCount++;
+				letters[index] = letter;
+			}
+			available[index]++;
+		}
+
+		final List<String> spellableWords = new ArrayList<>();
+		final int[] used = new int[letterCount];
+		final int[] word = new int[alphabet.size()];
+		final int limit = buffer.limit();
+		int position = 0;
+		while (position < limit) {
+			int end = position;
+			while (end < limit && buffer.get(end) != '\n') {
+				end++;
+			}
+			final int length = spell(buffer, position, wordEnd(buffer, position, end), letters, letterCount, available, used, word);
+			if (length >= TileEnumerator.MIN_WORD_LENGTH) {
+				spellableWords.add(new String(word, 0, length));
+			}
+			position = end + 1;
+		}
+		return spellableWords;
+	}
+
+	private synchronized MappedByteBuffer map() {
+		if (words == null) {
+			try (FileChannel channel = FileChannel.open(Path.of(location), StandardOpenOption.READ)) {
+				words = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				logger.info("Word list {} mapped ({} kB)", location, channel.size() / 1024);
+			} catch (IOException e) {
+				throw new RuntimeException("Unable to map word list " + location, e);
+			}
+		}
+		return words;
+	}
+
+	// line without the affix flags and the carriage return
+	private static int wordEnd(MappedByteBuffer buffer, int start, int end) {
+		for (int i = start; i < end; i++) {
+			final byte b = buffer.get(i);
+			if (b == '/' || b == '\r') {
+				return i;
+			}
+		}
+		return end;
+	}
+
+	// word spelled with the letters of the tiles, so it is encoded exactly like the enumerated ones - length or -1
+	private static int spell(MappedByteBuffer buffer,
+							 int start,
+							 int end,
+							 int[] letters,
+							 int letterCount,
+							 int[] available,
+							 int[] used,
+							 int[] word) {
+		Arrays.fill(used, 0);
+		int length = 0;
+		int position = start;
+		while (position < end) {
+			// only letters of the tiles are accepted, so a malformed sequence simply does not match any of them
+			final int lead = buffer.get(position) & 0xff;
+			final int codePoint;
+			if (lead < 0x80) {
+				codePoint = lead;
+				position += 1;
+			} else if (lead < 0xe0 && position + 1 < end) {
+				codePoint = (lead & 0x1f) << 6 | buffer.get(position + 1) & 0x3f;
+				position += 2;
+			} else if (lead < 0xf0 && position + 2 < end) {
+				codePoint = (lead & 0x0f) << 12 | (buffer.get(position + 1) & 0x3f) << 6 | buffer.get(position + 2) & 0x3f;
+				position += 3;
+			} else {
+				return -1;
+			}
+			final int index = indexOf(letters, letterCount, Character.toUpperCase(codePoint));
+			if (index < 0 || ++used[index] > available[index]) {
+				return -1;
+			}
+			word[length++] = letters[index];
+		}
+		return length;
+	}
+
+	private static int indexOf(int[] letters, int letterCount, int letter) {
+		for (int i = 0; i < letterCount; i++) {
+			if (letters[i] == letter) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
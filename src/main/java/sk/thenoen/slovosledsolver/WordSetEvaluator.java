@@ -0,0 +1,167 @@
+package sk.thenoen.slovosledsolver;
+
+import java.util.Arrays;
+
+import sk.thenoen.slovosledsolver.model.GameWords;
+import sk.thenoen.slovosledsolver.model.ScoreKernel;
+
+/**
+ * Plays unordered sets of {@link GameGenerator#WORDS_IN_GAME} words, with the same best score as {@link GameEvaluator}
+ * over all the orders of the set. The tile state after a subset of the words does not depend on their order, so the
+ * best order is found by a dynamic program over the subsets of the set: a subset keeps the best score for each
+ * distinct tile state its selections lead to, with and without the bonus active.
+ * <p>
+ * Instances are immutable and may be shared by threads.
+ */
+class WordSetEvaluator {
+
+	private static final int SUBSETS = 1 << GameGenerator.WORDS_IN_GAME;
+	private static final int FULL_SET = SUBSETS - 1;
+	private static final long UNREACHED = Long.MIN_VALUE;
+
+	private final GameWords gameWords;
+	private final ScoreKernel scoreKernel;
+	private final GameEvaluator gameEvaluator;
+	private final int wordCount;
+
+	WordSetEvaluator(GameWords gameWords) {
+		this.gameWords = gameWords;
+		scoreKernel = gameWords.scoreKernel();
+		gameEvaluator = new GameEvaluator(gameWords);
+		wordCount = gameWords.size();
+	}
+
+	/**
+	 * @return best score of the word sets with ranks in the range of {@link WordCombinations#unrankSet} and the lowest
+	 * rank with that score, both -1 if no game can be played
+	 */
+	long[] evaluate(long fromRank, long toRank) {
+		final SubsetTable table = new SubsetTable();
+		final int[] set = new int[GameGenerator.WORDS_IN_GAME];
+		final int[] previousSet = new int[GameGenerator.WORDS_IN_GAME];
+		long bestScore = -1;
+		long bestRank = -1;
+		if (fromRank < toRank) {
+			WordCombinations.unrankSet(fromRank, wordCount, set);
+		}
+		int changedPosition = 0;
+		for (long rank = fromRank; rank < toRank; rank++) {
+			final long score = table.play(set, changedPosition);
+			if (score > bestScore) {
+				bestScore = score;
+				bestRank = rank;
+			}
+			System.arraycopy(set, 0, previousSet, 0, set.length);
+			WordCombinations.nextSet(set, wordCount);
+			changedPosition = 0;
+			while (changedPosition < set.length && set[changedPosition] == previousSet[changedPosition]) {
+				changedPosition++;
+			}
+		}
+		return new long[]{bestScore, bestRank};
+	}
+
+	/**
+	 * @return word indices of the set of the rank in the order of its best game
+	 */
+	int[] bestOrder(long rank) {
+		final int[] set = new int[GameGenerator.WORDS_IN_GAME];
+		WordCombinations.unrankSet(rank, wordCount, set);
+		final int[] bestOrder = set.clone();
+		long bestScore = -1;
+		final int[] order = new int[set.length];
+		for (long permutation = 0; permutation < WordCombinations.count(set.length, set.length); permutation++) {
+			WordCombinations.unrank(permutation, set.length, order);
+			for (int i = 0; i < order.length; i++) {
+				order[i] = set[order[i]];
+			}
+			final long score = gameEvaluator.evaluate(order);
+			if (score > bestScore) {
+				bestScore = score;
+				System.arraycopy(order, 0, bestOrder, 0, order.length);
+			}
+		}
+		return bestOrder;
+	}
+
+	// distinct tile states of the subsets of a set and their best scores, reused for the sets of an evaluation
+	private final class SubsetTable {
+
+		private final int[] sizes = new int[SUBSETS];
+		private final long[][] states = new long[SUBSETS][4];
+		private final long[][] scores = new long[SUBSETS][8]; // without and with the bonus active for each state
+		private final boolean[][] bonusActivated = new boolean[SUBSETS][4]; // by the state, before the next word
+
+		/**
+		 * Consecutive sets share their first words, subsets of the words before the changed position are kept from
+		 * the previous set.
+		 */
+		private long play(int[] set, int changedPosition) {
+			final int keptSubsets = changedPosition == 0 ? 0 : 1 << changedPosition;
+			Arrays.fill(sizes, keptSubsets, SUBSETS, 0);
+			if (keptSubsets == 0) {
+				put(0, ScoreKernel.INITIAL_STATE, 0, 0);
+			}
+			// a subset is complete before any of its supersets, they have greater masks
+			for (int subset = 0; subset < FULL_SET; subset++) {
+				final boolean kept = subset < keptSubsets;
+				for (int entry = 0; entry < sizes[subset]; entry++) {
+					final long state = states[subset][entry];
+					if (!kept) {
+						bonusActivated[subset][entry] = scoreKernel.isBonusActive(state);
+					}
+					// kept subsets lead to the kept ones already, only the words from the changed position on are added
+					for (int position = kept ? changedPosition : 0; position < set.length; position++) {
+						if ((subset & 1 << position) == 0) {
+							play(subset, entry, position, set[position]);
+						}
+					}
+				}
+			}
+
+			long bestScore = -1;
+			for (int entry = 0; entry < 2 * sizes[FULL_SET]; entry++) {
+				bestScore = Math.max(bestScore, scores[FULL_SET][entry]);
+			}
+			return bestScore;
+		}
+
+		private void play(int subset, int entry, int position, int word) {
+			final long state = states[subset][entry];
+			for (int selection : gameWords.selections(word)) {
+				final long nextState = scoreKernel.use(state, selection);
+				for (int bonusActive = 0; bonusActive < 2; bonusActive++) {
+					final long score = scores[subset][2 * entry + bonusActive];
+					if (score == UNREACHED) {
+						continue;
+					}
+					// the bonus is latched before the word is played
+					final int nextBonusActive = bonusActivated[subset][entry] ? 1 : bonusActive;
+					put(subset | 1 << position,
+						nextState,
+						nextBonusActive,
+						score + gameWords.score(state, word, selection, nextBonusActive == 1));
+				}
+			}
+		}
+
+		private void put(int subset, long state, int bonusActive, long score) {
+			int entry = 0;
+			while (entry < sizes[subset] && states[subset][entry] != state) {
+				entry++;
+			}
+			if (entry == sizes[subset]) {
+				if (entry == states[subset].length) {
+					states[subset] = Arrays.copyOf(states[subset], 2 * entry);
+					scores[subset] = Arrays.copyOf(scores[subset], 4 * entry);
+					bonusActivated[subset] = Arrays.copyOf(bonusActivated[subset], 2 * entry);
+				}
+				states[subset][entry] = state;
+				scores[subset][2 * entry] = UNREACHED;
+				scores[subset][2 * entry + 1] = UNREACHED;
+				sizes[subset]++;
+			}
+			scores[subset][2 * entry + bonusActive] = Math.max(scores[subset][2 * entry + bonusActive], score);
+		}
+	}
+}
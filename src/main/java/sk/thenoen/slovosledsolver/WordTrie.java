@@ -0,0 +1,72 @@
+package sk.thenoen.slovosledsolver;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Trie of the word list words spellable from the tiles, over the distinct letters of the tiles.
+ * Nodes are rows of a single child table, no node objects are allocated.
+ */
+class WordTrie {
+
+	static final int ROOT = 0;
+
+	private final List<String> letters; // distinct letters of the tiles
+	private int[] children; // child of node n over letter l at [n * letters + l], 0 for none (root is never a child)
+	private boolean[] words;
+	private int nodeCount = 1;
+
+	WordTrie(List<String> alphabet, List<String> spellableWords) {
+		letters = alphabet.stream().distinct().toList();
+		children = new int[letters.size() * 64];
+		words = new boolean[64];
+		for (String word : spellableWords) {
+			add(word);
+		}
+		children = Arrays.copyOf(children, nodeCount * letters.size());
+		words = Arrays.copyOf(words, nodeCount);
+	}
+
+	int letterIndex(String letter) {
+		return letters.indexOf(letter);
+	}
+
+	/**
+	 * @return node of the prefix extended by the letter, -1 if no word starts with it
+	 */
+	int child(int node, int letter) {
+		final int child = children[node * letters.size() + letter];
+		return child == 0 ? -1 : child;
+	}
+
+	boolean isWord(int node) {
+		return words[node];
+	}
+
+	int size() {
+		return nodeCount;
+	}
+
+	private void add(String word) {
+		int node = ROOT;
+		for (int i = 0; i < word.length(); ) {
+			final int codePoint = word.codePointAt(i);
+			final String letter = word.substring(i, i + Character.charCount(codePoint));
+			i += letter.length();
+			final int letterIndex = letterIndex(letter);
+			if (letterIndex < 0) {
+				throw new IllegalArgumentException("Word " + word + " cannot be spelled from the tiles");
+			}
+			final int slot = node * letters.size() + letterIndex;
+			if (children[slot] == 0) {
+				if (nodeCount == words.length) {
+					children = Arrays.copyOf(children, children.length * 2);
+					words = Arrays.copyOf(words, words.length * 2);
+				}
+				children[slot] = nodeCount++;
+			}
+			node = children[slot];
+		}
+		words[node] = true;
+	}
+}
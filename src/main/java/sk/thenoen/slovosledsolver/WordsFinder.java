@@ -2,40 +2,77 @@ package sk.thenoen.slovosledsolver;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.HexFormat;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.Future;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import sk.thenoen.slovosledsolver.hash.HashBackend;
+import sk.thenoen.slovosledsolver.hash.HashTargets;
+import sk.thenoen.slovosledsolver.hash.MatchedTargets;
+import sk.thenoen.slovosledsolver.hash.WordHasher;
 import sk.thenoen.slovosledsolver.util.CacheUtils;
+import sk.thenoen.slovosledsolver.util.Journal;
 
 @Component
 public class WordsFinder {
 
 	private static final Logger logger = LoggerFactory.getLogger(WordsFinder.class);
 
-	private static final HexFormat HEX_FORMAT = HexFormat.of();
-	private static List<Future<List<String>>> futures = new ArrayList<>();
+	// subtrees this close to the leaves are never split into separate tasks
+	private static final int SEQUENTIAL_LEVELS = 4;
+	// a task splits only while its worker has at most this many queued tasks nobody has stolen yet
+	private static final int SURPLUS_QUEUED_TASKS = 2;
 
-	private static ThreadPoolTaskExecutor taskExecutor;
 	private static ThreadLocal<MessageDigest> threadLocalDigest = ThreadLocal.withInitial(WordsFinder::createMessageDigest);
 
-	public WordsFinder() {
-		taskExecutor = new ThreadPoolTaskExecutorBuilder()
-				.corePoolSize(15)
-				.maxPoolSize(100)
-				.queueCapacity(1_000_000_000)
-				.build();
-		taskExecutor.initialize();
+	private final SearchMode searchMode;
+	private final HashBackend hashBackend;
+	private final int parallelism;
+	private final boolean collisionHunting;
+	private final WordList wordList;
+	private final ReverseIndex reverseIndex;
+	private final LetterModel letterModel;
+	private final Checkpoints checkpoints;
+
+	public enum SearchMode {
+		// every candidate is joined into a String and hashed from scratch
+		STRING,
+		// every DFS depth keeps a cloned digest of its prefix, a node feeds in only its newest tile
+		PREFIX_DIGEST,
+		// allocation-free enumeration over a bit mask of used tiles hashed by the configured backend, see TileEnumerator,
+		// likely words first with the letter model
+		TILE_MASK,
+		// TILE_MASK expanding only prefixes of the word list words, targets of other words are left unmatched
+		DICTIONARY_TRIE
+	}
+
+	public WordsFinder(@Value("${words.finder.search-mode:TILE_MASK}") SearchMode searchMode,
+					   @Value("${words.finder.hash-backend:AUTO}") HashBackend hashBackend,
+					   @Value("${words.finder.parallelism:0}") int parallelism,
+					   @Value("${words.finder.collision-hunting:false}") boolean collisionHunting,
+					   WordList wordList,
+					   ReverseIndex reverseIndex,
+					   LetterModel letterModel,
+					   Checkpoints checkpoints) {
+		this.searchMode = searchMode;
+		this.hashBackend = hashBackend;
+		// availableProcessors() honours cgroup CPU limits of containers
+		this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		// keeps searching after all targets are matched, other words with the same hash are found too
+		this.collisionHunting = collisionHunting;
+		this.wordList = wordList;
+		this.reverseIndex = reverseIndex;
+		this.letterModel = letterModel;
+		this.checkpoints = checkpoints;
 	}
 
 	private static MessageDigest createMessageDigest() {
@@ -46,117 +83,310 @@ public class WordsFinder {
 		}
 	}
 
-	private void shutdown() {
+	// Work-stealing keeps the cores busy as long as every worker has a few tasks queued, so splitting stops
+	// as soon as the other workers do not steal them fast enough - the granularity follows the number of cores.
+	static boolean shouldSplit(long depth, int maxLength) {
+		return depth < maxLength - SEQUENTIAL_LEVELS && ForkJoinTask.getSurplusQueuedTaskCount() <= SURPLUS_QUEUED_TASKS;
+	}
 
-		long maxTasks = taskExecutor.getQueueSize();
-		long progress = 0;
+	public SearchResult findWords(List<String> alphabet, HashTargets targets) {
+		return findWords(alphabet, targets, null);
+	}
 
-		do {
-			long currentTasks = taskExecutor.getQueueSize();
-			long newProgress = (currentTasks * 100) / maxTasks;
+	/**
+	 * @param coordinator distributes the enumeration over its workers, {@code null} enumerates with the cores of this
+	 *                    process
+	 */
+	public SearchResult findWords(List<String> alphabet, HashTargets targets, ClusterCoordinator coordinator) {
 
-			if (newProgress != progress) {
-				logger.info("Waiting for tasks to finish ... {}% \t Active: {},\tQueue: {}",
-							newProgress,
-							taskExecutor.getActiveCount(),
-							taskExecutor.getQueueSize());
-				progress = newProgress;
-			}
+		logger.info("Finding words ...");
 
-			try {
-				Thread.sleep(1000);
-			} catch (InterruptedException e) {
-				throw new RuntimeException(e);
+		try {
+			final List<String> strings = CacheUtils.readCachedWords();
+			if (!strings.isEmpty()) {
+				final MatchedTargets matchedTargets = new MatchedTargets(targets);
+				final WordHasher hasher = hashBackend.createHasher(targets);
+				for (String word : strings) {
+					final int index = hasher.find(word.getBytes(StandardCharsets.UTF_8));
+					if (index >= 0) {
+						matchedTargets.match(index);
+					}
+				}
+				return new SearchResult(strings, unmatchedHashes(targets, matchedTargets));
 			}
-		} while (taskExecutor.getActiveCount() > 0);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+
+		final SearchResult result = search(alphabet, targets, coordinator);
+
+		logger.info("Finding words finished");
+		CacheUtils.cacheWords(result.words());
+		return result;
+	}
+
+	SearchResult search(List<String> alphabet, HashTargets targets) {
+		return search(alphabet, targets, null);
+	}
 
-		for (Future<List<String>> future : futures) {
-			try {
-				future.get();
-			} catch (Exception ex) {
-				logger.error("Error while waiting for task to finish", ex);
+	SearchResult search(List<String> alphabet, HashTargets targets, ClusterCoordinator coordinator) {
+		final boolean tileSearch = searchMode == SearchMode.TILE_MASK || searchMode == SearchMode.DICTIONARY_TRIE;
+		if (coordinator != null && !tileSearch) {
+			throw new IllegalStateException("Search mode " + searchMode + " cannot be distributed, set words.finder.search-mode to "
+											+ SearchMode.TILE_MASK + " or " + SearchMode.DICTIONARY_TRIE);
+		}
+		logger.info("Searching words using {} mode", searchMode);
+
+		// words from the word list are enumerated by the brute force again
+		final Set<String> foundWords = ConcurrentHashMap.newKeySet(targets.size());
+		final MatchedTargets matchedTargets = new MatchedTargets(targets);
+
+		if (reverseIndex.isEnabled()) {
+			final int resolved = reverseIndex.resolve(targets, matchedTargets, foundWords);
+			logger.info("Reverse index resolved {} of {} targets", resolved, targets.distinctSize());
+		}
+		WordTrie trie = null;
+		List<String> trieWords = List.of();
+		if (searchMode == SearchMode.DICTIONARY_TRIE) {
+			if (!wordList.isAvailable()) {
+				throw new IllegalStateException("Search mode " + searchMode + " needs a word list, set words.finder.word-list");
 			}
+			trieWords = wordList.spellableWords(alphabet);
+			trie = new WordTrie(alphabet, trieWords);
+			logger.info("Word trie has {} nodes", trie.size());
+		} else if (wordList.isAvailable() && !isStopped(matchedTargets)) {
+			matchListedWords(alphabet, targets, matchedTargets, foundWords);
 		}
 
-		taskExecutor.shutdown();
+		final long start = System.nanoTime();
+		if (tileSearch) {
+			final Journal journal = openJournal(alphabet, targets, matchedTargets, foundWords);
+			final TileEnumerator tileEnumerator =
+					new TileEnumerator(alphabet, targets, hashBackend, matchedTargets, collisionHunting, letterModel, trie, journal, foundWords);
+			if (coordinator != null) {
+				// colliding words are hunted for every target, otherwise the workers look for the remaining ones only
+				final List<String> hashes = unmatchedHashes(targets, collisionHunting ? new MatchedTargets(targets) : matchedTargets);
+				if (hashes.isEmpty()) {
+					logger.info("No targets remain, the distributed search is skipped");
+				} else {
+					coordinator.enumerate(alphabet, hashes, searchMode, trieWords, tileEnumerator);
+				}
+			} else {
+				try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+					tileEnumerator.enumerate(pool);
+				}
+			}
+			journal.complete();
+		} else {
+			try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+				pool.invoke(ForkJoinTask.adapt(() -> letterVariations(alphabet, foundWords, targets, matchedTargets)));
+			}
+		}
+		logger.info("Search finished in {} ms using {}, {} of {} targets not matched",
+					(System.nanoTime() - start) / 1_000_000,
+					coordinator != null ? "the cluster" : parallelism + " threads",
+					matchedTargets.remaining(),
+					targets.distinctSize());
+
+		if (reverseIndex.isEnabled()) {
+			reverseIndex.addWords(foundWords);
+		}
+		final List<String> unmatchedHashes = unmatchedHashes(targets, matchedTargets);
+		if (searchMode == SearchMode.DICTIONARY_TRIE && !unmatchedHashes.isEmpty()) {
+			logger.warn("{} targets are not words of the word list, {} mode searches all variations",
+						unmatchedHashes.size(),
+						SearchMode.TILE_MASK);
+		}
+		return new SearchResult(foundWords.stream().sorted().toList(), unmatchedHashes);
 	}
 
-	public List<String> findWords(List<String> alphabet, Set<String> hashes) {
-
-		logger.info("Finding words ...");
+	// words found by an interrupted run of the same search are restored, its finished units are skipped
+	private Journal openJournal(List<String> alphabet, HashTargets targets, MatchedTargets matchedTargets, Collection<String> foundWords) {
+		final String[] input = new String[targets.size() + 5];
+		input[0] = searchMode.name();
+		input[1] = String.valueOf(collisionHunting);
+		input[2] = String.join("", alphabet);
+		// the word list decides the listed words and the trie, the letter model the visiting order
+		input[3] = wordList.digest();
+		input[4] = letterModel.digest();
+		for (int i = 0; i < targets.size(); i++) {
+			input[i + 5] = targets.getHash(i);
+		}
+		final Journal journal = checkpoints.open("search", input);
+
+		final WordHasher hasher = hashBackend.createHasher(targets);
+		for (String[] entry : journal.entries()) {
+			if (entry[0].equals(TileEnumerator.FOUND_WORD)) {
+				final int index = hasher.find(entry[1].getBytes(StandardCharsets.UTF_8));
+				if (index >= 0) {
+					matchedTargets.match(index);
+					foundWords.add(entry[1]);
+				}
+			}
+		}
+		return journal;
+	}
 
-		try {
-			final List<String> strings = CacheUtils.readCachedWords();
-			if (!strings.isEmpty()) {
-				return strings;
+	// repeated hashes are matched under their first index only, so they are reported once
+	static List<String> unmatchedHashes(HashTargets targets, MatchedTargets matchedTargets) {
+		final List<String> unmatchedHashes = new ArrayList<>();
+		for (int i = 0; i < targets.size(); i++) {
+			final String hash = targets.getHash(i);
+			if (!matchedTargets.isMatched(i) && !unmatchedHashes.contains(hash)) {
+				unmatchedHashes.add(hash);
 			}
-		} catch (Exception e) {
-			throw new RuntimeException(e);
 		}
+		return unmatchedHashes;
+	}
 
-		List<String> foundWords = Collections.synchronizedList(new ArrayList<>(hashes.size()));
+	private void matchListedWords(List<String> alphabet, HashTargets targets, MatchedTargets matchedTargets, Collection<String> foundWords) {
+		final long start = System.nanoTime();
+		final List<String> spellableWords = wordList.spellableWords(alphabet);
+		final WordHasher hasher = hashBackend.createHasher(targets);
+		for (String word : spellableWords) {
+			final int index = hasher.find(word.getBytes(StandardCharsets.UTF_8));
+			if (index >= 0) {
+				logger.debug("Found listed word: {} -> {}", word, targets.getHash(index));
+				matchedTargets.match(index);
+				foundWords.add(word);
+			}
+		}
+		logger.info("Word list matched {} of {} targets with {} spellable words in {} ms, brute force {}",
+					targets.distinctSize() - matchedTargets.remaining(),
+					targets.distinctSize(),
+					spellableWords.size(),
+					(System.nanoTime() - start) / 1_000_000,
+					isStopped(matchedTargets) ? "skipped" : "continues for the rest");
+	}
 
+	private void letterVariations(List<String> alphabet, Collection<String> foundWords, HashTargets targets, MatchedTargets matchedTargets) {
+		final List<ForkJoinTask<?>> tasks = new ArrayList<>();
 		for (int i = 0; i < alphabet.size(); i++) {
+			if (isRepeatedLetter(alphabet, i)) {
+				continue;
+			}
 			final ArrayList<String> newAlphabet = new ArrayList<>(alphabet);
 			newAlphabet.remove(i);
-			variations(List.of(alphabet.get(i)), newAlphabet, 1, foundWords, hashes);
+			final String letter = alphabet.get(i);
+			if (searchMode == SearchMode.STRING) {
+				tasks.add(ForkJoinTask.adapt(() -> variations(List.of(letter), newAlphabet, 1, foundWords, targets, matchedTargets)));
+			} else {
+				final MessageDigest prefixDigest = createMessageDigest();
+				prefixDigest.update(letter.getBytes(StandardCharsets.UTF_8));
+				tasks.add(ForkJoinTask.adapt(() -> prefixDigestVariations(List.of(letter), newAlphabet, prefixDigest, 1, foundWords, targets, matchedTargets)));
+			}
 		}
+		ForkJoinTask.invokeAll(tasks);
+	}
 
-		shutdown();
-
-		final Set<String> uniqueWords = HashSet.newHashSet(hashes.size());
-		uniqueWords.addAll(foundWords);
+	// Tiles with the same letter are interchangeable - only the first unused one is expanded at each position,
+	// so every distinct letter sequence is generated exactly once.
+	private static boolean isRepeatedLetter(List<String> alphabet, int index) {
+		return alphabet.indexOf(alphabet.get(index)) != index;
+	}
 
-		logger.info("Finding words finished");
-		final List<String> uniqueWordList = uniqueWords.stream().toList();
-		CacheUtils.cacheWords(uniqueWordList);
-		return uniqueWordList;
+	private boolean isStopped(MatchedTargets matchedTargets) {
+		return !collisionHunting && matchedTargets.isComplete();
 	}
 
-	private static void variations(List<String> prefix,
-								   List<String> alphabet,
-								   long depth,
-								   List<String> foundWords,
-								   Set<String> hashes) {
+	private void variations(List<String> prefix,
+							List<String> alphabet,
+							long depth,
+							Collection<String> foundWords,
+							HashTargets targets,
+							MatchedTargets matchedTargets) {
 
+		if (isStopped(matchedTargets)) {
+			return;
+		}
 		if (depth > 2 && depth <= 12) {
 			final StringBuilder stringBuilder = new StringBuilder();
 			prefix.forEach(stringBuilder::append);
 			String word = stringBuilder.toString();
 
 			byte[] encodedHash = threadLocalDigest.get().digest(word.getBytes(StandardCharsets.UTF_8));
-			final String sha256 = HEX_FORMAT.formatHex(encodedHash);
-			if (hashes.contains(sha256)) {
+			final int index = targets.indexOf(encodedHash);
+			if (index >= 0) {
 				logger.debug("Found word: {} -> {}", word, bytesToHex(encodedHash));
-				// WORD_HASHES.remove(sha256); // adding this will prevent finding of collisions
+				matchedTargets.match(index);
 				foundWords.add(word);
 			}
 		}
 
-		if (depth % 6 == 0) { // This seems to be ideal for 12 CPU cores (5 - too many tasks for Integer type, 7 too few tasks for 12 CPU cores)
-			for (int i = 0; i < alphabet.size(); i++) {
+		final boolean split = shouldSplit(depth, maxLength(prefix, alphabet));
+		final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		for (int i = 0; i < alphabet.size(); i++) {
+			if (isRepeatedLetter(alphabet, i)) {
+				continue;
+			}
+			final ArrayList<String> newAlphabet = new ArrayList<>(alphabet);
+			newAlphabet.remove(i);
+			var newPrefix = new ArrayList<>(prefix);
+			newPrefix.add(alphabet.get(i));
+			if (split) {
+				tasks.add(ForkJoinTask.adapt(() -> variations(newPrefix, newAlphabet, depth + 1, foundWords, targets, matchedTargets)));
+			} else {
+				variations(newPrefix, newAlphabet, depth + 1, foundWords, targets, matchedTargets);
+			}
+		}
+		ForkJoinTask.invokeAll(tasks);
+	}
 
-				final ArrayList<String> newAlphabet = new ArrayList<>(alphabet);
-				newAlphabet.remove(i);
-				var newPrefix = new ArrayList<>(prefix);
-				newPrefix.add(alphabet.get(i));
+	private void prefixDigestVariations(List<String> prefix,
+										List<String> alphabet,
+										MessageDigest prefixDigest,
+										long depth,
+										Collection<String> foundWords,
+										HashTargets targets,
+										MatchedTargets matchedTargets) {
 
-				final Future<List<String>> future = taskExecutor.submit(() -> {
-					List<String> newFoundWords = new ArrayList<>();
-					variations(newPrefix, newAlphabet, depth + 1, foundWords, hashes);
-					return newFoundWords;
-				});
-				futures.add(future);
-			}
+		if (isStopped(matchedTargets)) {
 			return;
 		}
 
+		final boolean split = shouldSplit(depth, maxLength(prefix, alphabet));
+		final List<ForkJoinTask<?>> tasks = new ArrayList<>();
 		for (int i = 0; i < alphabet.size(); i++) {
+			if (isRepeatedLetter(alphabet, i)) {
+				continue;
+			}
 			final ArrayList<String> newAlphabet = new ArrayList<>(alphabet);
 			newAlphabet.remove(i);
 			var newPrefix = new ArrayList<>(prefix);
 			newPrefix.add(alphabet.get(i));
-			variations(newPrefix, newAlphabet, depth + 1, foundWords, hashes);
+			final MessageDigest newPrefixDigest = extendDigest(prefixDigest, alphabet.get(i));
+			if (split) {
+				tasks.add(ForkJoinTask.adapt(() -> prefixDigestVariations(newPrefix, newAlphabet, newPrefixDigest, depth + 1, foundWords, targets, matchedTargets)));
+			} else {
+				prefixDigestVariations(newPrefix, newAlphabet, newPrefixDigest, depth + 1, foundWords, targets, matchedTargets);
+			}
+		}
+		ForkJoinTask.invokeAll(tasks);
+
+		// children are cloned from the prefix digest first, so it can be finalized (and reset) only afterwards
+		if (depth > 2 && depth <= 12) {
+			byte[] encodedHash = prefixDigest.digest();
+			final int index = targets.indexOf(encodedHash);
+			if (index >= 0) {
+				final String word = String.join("", prefix);
+				logger.debug("Found word: {} -> {}", word, bytesToHex(encodedHash));
+				matchedTargets.match(index);
+				foundWords.add(word);
+			}
+		}
+	}
+
+	private static int maxLength(List<String> prefix, List<String> alphabet) {
+		return Math.min(prefix.size() + alphabet.size(), TileEnumerator.MAX_WORD_LENGTH);
+	}
+
+	private static MessageDigest extendDigest(MessageDigest prefixDigest, String letter) {
+		try {
+			final MessageDigest digest = (MessageDigest) prefixDigest.clone();
+			digest.update(letter.getBytes(StandardCharsets.UTF_8));
+			return digest;
+		} catch (CloneNotSupportedException ex) {
+			throw new RuntimeException("Unable to clone MessageDigest", ex);
 		}
 	}
 
@@ -0,0 +1,30 @@
+package sk.thenoen.slovosledsolver.hash;
+
+/**
+ * Hashes several candidate words at once, one per lane. Instances are not thread-safe.
+ */
+public interface BatchHasher {
+
+	int lanes();
+
+	/**
+	 * Buffer the word of the lane is written to before {@link #hash(int)}.
+	 */
+	byte[] message(int lane);
+
+	int length(int lane);
+
+	void setLength(int lane, int length);
+
+	/**
+	 * Hashes the words in lanes {@code [0, count)}.
+	 *
+	 * @return bit mask of the lanes whose word is a target
+	 */
+	int hash(int count);
+
+	/**
+	 * Index of the target matched by the lane in the last {@link #hash(int)} call.
+	 */
+	int targetIndex(int lane);
+}
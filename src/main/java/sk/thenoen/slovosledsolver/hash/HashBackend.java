@@ -0,0 +1,164 @@
+package sk.thenoen.slovosledsolver.hash;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+public enum HashBackend {
+
+	// JCA provider, intrinsified on CPUs with SHA extensions
+	JCA(MessageDigestHasher::new),
+	// single-block kernel with prefix-shared round states, see Sha256
+	KERNEL(Sha256Hasher::new),
+	// candidates hashed in batches across SIMD lanes, see Sha256Lanes (vector profile) - single words use the kernel
+	VECTOR(Sha256Hasher::new),
+	// the fastest of the above on this CPU, measured once per JVM
+	AUTO(null);
+
+	private static final Logger logger = LoggerFactory.getLogger(HashBackend.class);
+
+	private static final String VECTOR_MODULE = "jdk.incubator.vector";
+	// built by the vector profile only, so it is not linked directly
+	private static final String LANES_CLASS = "sk.thenoen.slovosledsolver.hash.Sha256Lanes";
+	private static final int CALIBRATION_ROUNDS = 5;
+	private static final int CALIBRATION_HASHES = 200_000;
+
+	private static volatile HashBackend calibratedBackend;
+	// VECTOR or its fallback, resolved once per JVM so the fallback is reported once
+	private static volatile HashBackend vectorBackend;
+
+	private final Function<HashTargets, WordHasher> hasherFactory;
+
+	HashBackend(Function<HashTargets, WordHasher> hasherFactory) {
+		this.hasherFactory = hasherFactory;
+	}
+
+	public WordHasher createHasher(HashTargets targets) {
+		return resolve().hasherFactory.apply(targets);
+	}
+
+	/**
+	 * @return hasher of whole batches of candidates, {@code null} if the backend hashes one candidate at a time
+	 */
+	public BatchHasher createBatchHasher(HashTargets targets) {
+		return resolve() == VECTOR ? createLanes(targets) : null;
+	}
+
+	public HashBackend resolve() {
+		if (this == VECTOR) {
+			if (vectorBackend == null) {
+				synchronized (HashBackend.class) {
+					if (vectorBackend == null) {
+						vectorBackend = resolveVector();
+					}
+				}
+			}
+			return vectorBackend;
+		}
+		if (this != AUTO) {
+			return this;
+		}
+		if (calibratedBackend == null) {
+			synchronized (HashBackend.class) {
+				if (calibratedBackend == null) {
+					calibratedBackend = calibrate();
+				}
+			}
+		}
+		return calibratedBackend;
+	}
+
+	public static boolean isVectorSupported() {
+		if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+			return false;
+		}
+		try {
+			Class.forName(LANES_CLASS, false, HashBackend.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	private static HashBackend resolveVector() {
+		if (isVectorSupported()) {
+			return VECTOR;
+		}
+		logger.warn("Vector hashing is not available (build with -Pvector, run with --add-modules {}), using {}", VECTOR_MODULE, KERNEL);
+		return KERNEL;
+	}
+
+	private static BatchHasher createLanes(HashTargets targets) {
+		try {
+			return (BatchHasher) Class.forName(LANES_CLASS).getConstructor(HashTargets.class).newInstance(targets);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Unable to create " + LANES_CLASS, e);
+		}
+	}
+
+	// Hashes the same sibling-heavy candidate stream the search produces, the first rounds only warm up the JIT.
+	private static HashBackend calibrate() {
+		final HashTargets targets = new HashTargets(new String[0]);
+		final byte[] word = "ŠUPALEVYHI".getBytes(StandardCharsets.UTF_8);
+		final boolean vectorSupported = isVectorSupported();
+
+		long jcaNanos = 0;
+		long kernelNanos = 0;
+		long vectorNanos = 0;
+		for (int round = 0; round < CALIBRATION_ROUNDS; round++) {
+			final long jca = measure(JCA.hasherFactory.apply(targets), word);
+			final long kernel = measure(KERNEL.hasherFactory.apply(targets), word);
+			final long vector = vectorSupported ? measure(createLanes(targets), word) : 0;
+			if (round >= CALIBRATION_ROUNDS / 2) {
+				jcaNanos += jca;
+				kernelNanos += kernel;
+				vectorNanos += vector;
+			}
+		}
+
+		HashBackend backend = kernelNanos < jcaNanos ? KERNEL : JCA;
+		if (vectorSupported && vectorNanos < Math.min(jcaNanos, kernelNanos)) {
+			backend = VECTOR;
+		}
+		logger.info("Hash backend calibrated: {} (JCA {} ms, kernel {} ms, vector {})",
+					backend,
+					jcaNanos / 1_000_000,
+					kernelNanos / 1_000_000,
+					vectorSupported ? vectorNanos / 1_000_000 + " ms" : "not available");
+		return backend;
+	}
+
+	private static long measure(WordHasher hasher, byte[] word) {
+		int found = 0;
+		final long start = System.nanoTime();
+		for (int i = 0; i < CALIBRATION_HASHES; i++) {
+			word[word.length - 1] = (byte) ('A' + i % 26);
+			found += hasher.find(word, word.length, word.length - 1);
+		}
+		final long nanos = System.nanoTime() - start;
+		if (found == Integer.MIN_VALUE) {
+			logger.trace("Calibration result is used so it is not optimized out");
+		}
+		return nanos;
+	}
+
+	private static long measure(BatchHasher hasher, byte[] word) {
+		int found = 0;
+		final long start = System.nanoTime();
+		for (int i = 0; i < CALIBRATION_HASHES; i += hasher.lanes()) {
+			for (int lane = 0; lane < hasher.lanes(); lane++) {
+				word[word.length - 1] = (byte) ('A' + (i + lane) % 26);
+				System.arraycopy(word, 0, hasher.message(lane), 0, word.length);
+				hasher.setLength(lane, word.length);
+			}
+			found += hasher.hash(hasher.lanes());
+		}
+		final long nanos = System.nanoTime() - start;
+		if (found == Integer.MIN_VALUE) {
+			logger.trace("Calibration result is used so it is not optimized out");
+		}
+		return nanos;
+	}
+}
@@ -0,0 +1,133 @@
+package sk.thenoen.slovosledsolver.hash;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Open-addressing table of SHA-256 targets keyed on the first 8 bytes of the raw digest.
+ * The remaining bytes are compared only when the key matches.
+ */
+public class HashTargets {
+
+	public static final int DIGEST_LENGTH = 32;
+
+	// bit filter over the top 16 bits of the first digest word: 2048 ints, word index from the top 11 bits
+	static final int FILTER_WORD_SHIFT = 21;
+	static final int FILTER_BIT_SHIFT = 16;
+
+	private static final HexFormat HEX_FORMAT = HexFormat.of();
+	private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+	private static final VarHandle INT_VIEW = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+	private final byte[][] digests;
+	private final int[] digestWords; // big-endian words of all digests, 8 per target
+	private final long[] keys;
+	private final int[] slots; // index of the target + 1, 0 marks an empty slot
+	private final int mask;
+	private int distinctSize = 0;
+	private final int[] filter = new int[1 << (Integer.SIZE - FILTER_WORD_SHIFT)];
+
+	public HashTargets(String[] hashes) {
+		digests = new byte[hashes.length][];
+		digestWords = new int[hashes.length * 8];
+		for (int i = 0; i < hashes.length; i++) {
+			digests[i] = HEX_FORMAT.parseHex(hashes[i]);
+			if (digests[i].length != DIGEST_LENGTH) {
+				throw new IllegalArgumentException("Not a SHA-256 hash: " + hashes[i]);
+			}
+			for (int j = 0; j < 8; j++) {
+				digestWords[i * 8 + j] = (int) INT_VIEW.get(digests[i], j * 4);
+			}
+			final int firstWord = digestWords[i * 8];
+			filter[firstWord >>> FILTER_WORD_SHIFT] |= 1 << (firstWord >>> FILTER_BIT_SHIFT & 31);
+		}
+
+		// load factor at most 0.5 keeps the probe sequences short
+		final int capacity = Integer.highestOneBit(Math.max(hashes.length, 1) * 4 - 1);
+		keys = new long[capacity];
+		slots = new int[capacity];
+		mask = capacity - 1;
+
+		for (int i = 0; i < digests.length; i++) {
+			if (indexOf(digests[i]) >= 0) {
+				continue; // duplicate hash on the page
+			}
+			final long key = (long) LONG_VIEW.get(digests[i], 0);
+			int slot = slotOf(key);
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = key;
+			slots[slot] = i + 1;
+			distinctSize++;
+		}
+	}
+
+	public int indexOf(byte[] digest) {
+		final long key = (long) LONG_VIEW.get(digest, 0);
+		int slot = slotOf(key);
+		while (slots[slot] != 0) {
+			if (keys[slot] == key) {
+				final int index = slots[slot] - 1;
+				if (Arrays.equals(digests[index], 8, DIGEST_LENGTH, digest, 8, DIGEST_LENGTH)) {
+					return index;
+				}
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * @param digest digest as 8 big-endian words, see {@link Sha256#digest()}
+	 */
+	public int indexOf(int[] digest) {
+		final long key = (long) digest[0] << 32 | digest[1] & 0xffffffffL;
+		int slot = slotOf(key);
+		while (slots[slot] != 0) {
+			if (keys[slot] == key) {
+				final int index = slots[slot] - 1;
+				if (Arrays.equals(digestWords, index * 8 + 2, index * 8 + 8, digest, 2, 8)) {
+					return index;
+				}
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	public boolean contains(byte[] digest) {
+		return indexOf(digest) >= 0;
+	}
+
+	int[] filter() {
+		return filter;
+	}
+
+	public int size() {
+		return digests.length;
+	}
+
+	/**
+	 * @return number of different hashes, a hash repeated on the page is always found under its first index
+	 */
+	public int distinctSize() {
+		return distinctSize;
+	}
+
+	public byte[] getDigest(int index) {
+		return digests[index].clone();
+	}
+
+	public String getHash(int index) {
+		return HEX_FORMAT.formatHex(digests[index]);
+	}
+
+	private int slotOf(long key) {
+		// digests are uniformly distributed already, folding the halves is enough
+		return (int) (key ^ (key >>> 32)) & mask;
+	}
+}
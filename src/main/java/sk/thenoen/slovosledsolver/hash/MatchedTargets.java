@@ -0,0 +1,42 @@
+package sk.thenoen.slovosledsolver.hash;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Targets matched so far by concurrent searches. Lock-free - a target is claimed by the first worker hashing to it,
+ * {@link #isComplete()} is a single volatile read so it can be polled from the hot loop.
+ */
+public class MatchedTargets {
+
+	private final AtomicIntegerArray matched;
+	private final AtomicInteger remaining;
+
+	public MatchedTargets(HashTargets targets) {
+		matched = new AtomicIntegerArray(targets.size());
+		remaining = new AtomicInteger(targets.distinctSize());
+	}
+
+	/**
+	 * @return {@code true} if the target was not matched before, {@code false} for a collision
+	 */
+	public boolean match(int index) {
+		if (matched.get(index) != 0 || matched.getAndSet(index, 1) != 0) {
+			return false;
+		}
+		remaining.decrementAndGet();
+		return true;
+	}
+
+	public boolean isMatched(int index) {
+		return matched.get(index) != 0;
+	}
+
+	public int remaining() {
+		return remaining.get();
+	}
+
+	public boolean isComplete() {
+		return remaining.get() == 0;
+	}
+}
@@ -0,0 +1,32 @@
+package sk.thenoen.slovosledsolver.hash;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public class MessageDigestHasher implements WordHasher {
+
+	private final HashTargets targets;
+	private final MessageDigest digest;
+	private final byte[] encodedHash = new byte[HashTargets.DIGEST_LENGTH];
+
+	public MessageDigestHasher(HashTargets targets) {
+		this.targets = targets;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new RuntimeException("Unable to initialize MessageDigest", ex);
+		}
+	}
+
+	@Override
+	public int find(byte[] word, int length, int unchangedLength) {
+		digest.update(word, 0, length);
+		try {
+			digest.digest(encodedHash, 0, HashTargets.DIGEST_LENGTH);
+		} catch (DigestException ex) {
+			throw new IllegalStateException("Unable to finish digest", ex);
+		}
+		return targets.indexOf(encodedHash);
+	}
+}
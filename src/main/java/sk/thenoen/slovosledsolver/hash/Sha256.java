@@ -0,0 +1,148 @@
+package sk.thenoen.slovosledsolver.hash;
+
+/**
+ * SHA-256 of messages short enough to fit, together with the padding and the length, into a single 64-byte block.
+ * <p>
+ * The state after every round that consumes a message word made only of message bytes is kept, so a message sharing
+ * its first bytes with the previous one resumes the compression from there. Instances are not thread-safe.
+ */
+public class Sha256 {
+
+	public static final int MAX_MESSAGE_LENGTH = 55;
+
+	private static final int[] INITIAL_STATE = {
+			0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a, 0x510e527f, 0x9b05688c, 0x1f83d9ab, 0x5be0cd19
+	};
+
+	private static final int[] K = {
+			0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5, 0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5,
+			0xd807aa98, 0x12835b01, 0x243185be, 0x550c7dc3, 0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174,
+			0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc, 0x2de92c6f, 0x4a7484aa, 0x5cb0a9dc, 0x76f988da,
+			0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7, 0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967,
+			0x27b70a85, 0x2e1b2138, 0x4d2c6dfc, 0x53380d13, 0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85,
+			0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3, 0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070,
+			0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5, 0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
+			0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208, 0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2
+	};
+
+	private final int[] schedule = new int[64];
+	private final int[] roundStates = new int[17 * 8]; // state before round r at [r * 8, r * 8 + 8)
+	private int cachedRounds = 0;
+	private final int[] digest = new int[8];
+
+	public Sha256() {
+		System.arraycopy(INITIAL_STATE, 0, roundStates, 0, 8);
+	}
+
+	/**
+	 * Hashes the first {@code length} bytes of {@code message}, the result is available through {@link #digest()}.
+	 *
+	 * @param unchangedLength number of leading bytes equal to the message of the previous call
+	 */
+	public void hash(byte[] message, int length, int unchangedLength) {
+		if (length > MAX_MESSAGE_LENGTH) {
+			throw new IllegalArgumentException("Message does not fit into a single block: " + length + " bytes");
+		}
+
+		final int[] w = schedule;
+		final int fullWords = length >>> 2;
+		for (int i = 0; i < fullWords; i++) {
+			final int offset = i << 2;
+			w[i] = message[offset] << 24 | (message[offset + 1] & 0xff) << 16 | (message[offset + 2] & 0xff) << 8 | message[offset + 3] & 0xff;
+		}
+		final int tail = length & 3;
+		int lastWord = 0x80 << (24 - 8 * tail);
+		for (int j = 0; j < tail; j++) {
+			lastWord |= (message[(fullWords << 2) + j] & 0xff) << (24 - 8 * j);
+		}
+		w[fullWords] = lastWord;
+		for (int i = fullWords + 1; i < 15; i++) {
+			w[i] = 0;
+		}
+		w[15] = length << 3;
+
+		for (int t = 16; t < 64; t++) {
+			final int w2 = w[t - 2];
+			final int w15 = w[t - 15];
+			w[t] = (Integer.rotateRight(w2, 17) ^ Integer.rotateRight(w2, 19) ^ w2 >>> 10) + w[t - 7]
+				   + (Integer.rotateRight(w15, 7) ^ Integer.rotateRight(w15, 18) ^ w15 >>> 3) + w[t - 16];
+		}
+
+		final int firstRound = Math.min(Math.min(cachedRounds, unchangedLength >>> 2), fullWords);
+		final int[] states = roundStates;
+		int offset = firstRound << 3;
+		int a = states[offset];
+		int b = states[offset + 1];
+		int c = states[offset + 2];
+		int d = states[offset + 3];
+		int e = states[offset + 4];
+		int f = states[offset + 5];
+		int g = states[offset + 6];
+		int h = states[offset + 7];
+
+		int t = firstRound;
+		// rounds consuming only message bytes are cached for the next message with the same prefix
+		for (; t < fullWords; t++) {
+			final int t1 = h + (Integer.rotateRight(e, 6) ^ Integer.rotateRight(e, 11) ^ Integer.rotateRight(e, 25))
+						   + (e & f ^ ~e & g) + K[t] + w[t];
+			final int t2 = (Integer.rotateRight(a, 2) ^ Integer.rotateRight(a, 13) ^ Integer.rotateRight(a, 22))
+						   + (a & b ^ a & c ^ b & c);
+			h = g;
+			g = f;
+			f = e;
+			e = d + t1;
+			d = c;
+			c = b;
+			b = a;
+			a = t1 + t2;
+
+			offset += 8;
+			states[offset] = a;
+			states[offset + 1] = b;
+			states[offset + 2] = c;
+			states[offset + 3] = d;
+			states[offset + 4] = e;
+			states[offset + 5] = f;
+			states[offset + 6] = g;
+			states[offset + 7] = h;
+		}
+		for (; t < 64; t++) {
+			final int t1 = h + (Integer.rotateRight(e, 6) ^ Integer.rotateRight(e, 11) ^ Integer.rotateRight(e, 25))
+						   + (e & f ^ ~e & g) + K[t] + w[t];
+			final int t2 = (Integer.rotateRight(a, 2) ^ Integer.rotateRight(a, 13) ^ Integer.rotateRight(a, 22))
+						   + (a & b ^ a & c ^ b & c);
+			h = g;
+			g = f;
+			f = e;
+			e = d + t1;
+			d = c;
+			c = b;
+			b = a;
+			a = t1 + t2;
+		}
+		cachedRounds = fullWords;
+
+		digest[0] = INITIAL_STATE[0] + a;
+		digest[1] = INITIAL_STATE[1] + b;
+		digest[2] = INITIAL_STATE[2] + c;
+		digest[3] = INITIAL_STATE[3] + d;
+		digest[4] = INITIAL_STATE[4] + e;
+		digest[5] = INITIAL_STATE[5] + f;
+		digest[6] = INITIAL_STATE[6] + g;
+		digest[7] = INITIAL_STATE[7] + h;
+	}
+
+	/**
+	 * Forgets the rounds of the previous message, for a caller that changed the message without hashing it here.
+	 */
+	public void reset() {
+		cachedRounds = 0;
+	}
+
+	/**
+	 * Big-endian words of the last digest, the array is reused by the next call of {@link #hash}.
+	 */
+	public int[] digest() {
+		return digest;
+	}
+}
@@ -0,0 +1,26 @@
+package sk.thenoen.slovosledsolver.hash;
+
+public class Sha256Hasher implements WordHasher {
+
+	private final HashTargets targets;
+	private final Sha256 sha256 = new Sha256();
+	private MessageDigestHasher longWordHasher;
+
+	public Sha256Hasher(HashTargets targets) {
+		this.targets = targets;
+	}
+
+	@Override
+	public int find(byte[] word, int length, int unchangedLength) {
+		if (length > Sha256.MAX_MESSAGE_LENGTH) {
+			if (longWordHasher == null) {
+				longWordHasher = new MessageDigestHasher(targets);
+			}
+			// the unchanged length of the next word refers to this one, not to the cached prefix
+			sha256.reset();
+			return longWordHasher.find(word, length, unchangedLength);
+		}
+		sha256.hash(word, length, unchangedLength);
+		return targets.indexOf(sha256.digest());
+	}
+}
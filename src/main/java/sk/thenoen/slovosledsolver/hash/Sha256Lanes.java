@@ -0,0 +1,191 @@
+package sk.thenoen.slovosledsolver.hash;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SHA-256 of single-block messages computed for a whole SIMD register of candidates at once - 4, 8 or 16 lanes
+ * depending on the vector width of the CPU. Digests are pre-filtered against {@link HashTargets} in bulk, only the
+ * lanes passing the filter are looked up in the table.
+ * <p>
+ * Built by the {@code vector} profile, requires the {@code jdk.incubator.vector} module, check {@link HashBackend#isVectorSupported()} before use.
+ */
+public class Sha256Lanes implements BatchHasher {
+
+	private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+	private static final int[] INITIAL_STATE = {
+			0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a, 0x510e527f, 0x9b05688c, 0x1f83d9ab, 0x5be0cd19
+	};
+
+	private static final int[] K = {
+			0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5, 0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5,
+			0xd807aa98, 0x12835b01, 0x243185be, 0x550c7dc3, 0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174,
+			0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc, 0x2de92c6f, 0x4a7484aa, 0x5cb0a9dc, 0x76f988da,
+			0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7, 0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967,
+			0x27b70a85, 0x2e1b2138, 0x4d2c6dfc, 0x53380d13, 0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85,
+			0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3, 0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070,
+			0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5, 0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
+			0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208, 0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2
+	};
+
+	private final HashTargets targets;
+	private final int lanes = SPECIES.length();
+	private final byte[][] messages = new byte[lanes][Sha256.MAX_MESSAGE_LENGTH];
+	private final int[] lengths = new int[lanes];
+	private final int[] schedule = new int[64 * lanes]; // word t of lane l at [t * lanes + l]
+	private final int[] digests = new int[8 * lanes]; // same layout as the schedule
+	private final int[] filterIndices = new int[lanes];
+	private final int[] laneDigest = new int[8];
+	private final int[] targetIndices = new int[lanes];
+
+	public Sha256Lanes(HashTargets targets) {
+		this.targets = targets;
+	}
+
+	@Override
+	public int lanes() {
+		return lanes;
+	}
+
+	@Override
+	public byte[] message(int lane) {
+		return messages[lane];
+	}
+
+	@Override
+	public int length(int lane) {
+		return lengths[lane];
+	}
+
+	@Override
+	public void setLength(int lane, int length) {
+		if (length > Sha256.MAX_MESSAGE_LENGTH) {
+			throw new IllegalArgumentException("Message does not fit into a single block: " + length + " bytes");
+		}
+		lengths[lane] = length;
+	}
+
+	@Override
+	public int hash(int count) {
+		final int[] w = schedule;
+		for (int lane = 0; lane < count; lane++) {
+			loadBlock(lane);
+		}
+
+		for (int t = 16; t < 64; t++) {
+			final IntVector w2 = IntVector.fromArray(SPECIES, w, (t - 2) * lanes);
+			final IntVector w15 = IntVector.fromArray(SPECIES, w, (t - 15) * lanes);
+			final IntVector sigma1 = w2.lanewise(VectorOperators.ROR, 17)
+									   .lanewise(VectorOperators.XOR, w2.lanewise(VectorOperators.ROR, 19))
+									   .lanewise(VectorOperators.XOR, w2.lanewise(VectorOperators.LSHR, 10));
+			final IntVector sigma0 = w15.lanewise(VectorOperators.ROR, 7)
+										.lanewise(VectorOperators.XOR, w15.lanewise(VectorOperators.ROR, 18))
+										.lanewise(VectorOperators.XOR, w15.lanewise(VectorOperators.LSHR, 3));
+			sigma1.add(IntVector.fromArray(SPECIES, w, (t - 7) * lanes))
+				  .add(sigma0)
+				  .add(IntVector.fromArray(SPECIES, w, (t - 16) * lanes))
+				  .intoArray(w, t * lanes);
+		}
+
+		IntVector a = IntVector.broadcast(SPECIES, INITIAL_STATE[0]);
+		IntVector b = IntVector.broadcast(SPECIES, INITIAL_STATE[1]);
+		IntVector c = IntVector.broadcast(SPECIES, INITIAL_STATE[2]);
+		IntVector d = IntVector.broadcast(SPECIES, INITIAL_STATE[3]);
+		IntVector e = IntVector.broadcast(SPECIES, INITIAL_STATE[4]);
+		IntVector f = IntVector.broadcast(SPECIES, INITIAL_STATE[5]);
+		IntVector g = IntVector.broadcast(SPECIES, INITIAL_STATE[6]);
+		IntVector h = IntVector.broadcast(SPECIES, INITIAL_STATE[7]);
+
+		for (int t = 0; t < 64; t++) {
+			final IntVector bigSigma1 = e.lanewise(VectorOperators.ROR, 6)
+										 .lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.ROR, 11))
+										 .lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.ROR, 25));
+			final IntVector choice = e.and(f).lanewise(VectorOperators.XOR, g.lanewise(VectorOperators.AND_NOT, e));
+			final IntVector t1 = h.add(bigSigma1)
+								  .add(choice)
+								  .add(K[t])
+								  .add(IntVector.fromArray(SPECIES, w, t * lanes));
+			final IntVector bigSigma0 = a.lanewise(VectorOperators.ROR, 2)
+										 .lanewise(VectorOperators.XOR, a.lanewise(VectorOperators.ROR, 13))
+										 .lanewise(VectorOperators.XOR, a.lanewise(VectorOperators.ROR, 22));
+			final IntVector majority = a.and(b).lanewise(VectorOperators.XOR, a.and(c)).lanewise(VectorOperators.XOR, b.and(c));
+			h = g;
+			g = f;
+			f = e;
+			e = d.add(t1);
+			d = c;
+			c = b;
+			b = a;
+			a = t1.add(bigSigma0.add(majority));
+		}
+
+		a = a.add(INITIAL_STATE[0]);
+		a.intoArray(digests, 0);
+		b.add(INITIAL_STATE[1]).intoArray(digests, lanes);
+		c.add(INITIAL_STATE[2]).intoArray(digests, 2 * lanes);
+		d.add(INITIAL_STATE[3]).intoArray(digests, 3 * lanes);
+		e.add(INITIAL_STATE[4]).intoArray(digests, 4 * lanes);
+		f.add(INITIAL_STATE[5]).intoArray(digests, 5 * lanes);
+		g.add(INITIAL_STATE[6]).intoArray(digests, 6 * lanes);
+		h.add(INITIAL_STATE[7]).intoArray(digests, 7 * lanes);
+
+		return lookUp(a, count);
+	}
+
+	@Override
+	public int targetIndex(int lane) {
+		return targetIndices[lane];
+	}
+
+	private void loadBlock(int lane) {
+		final byte[] message = messages[lane];
+		final int length = lengths[lane];
+		final int[] w = schedule;
+
+		final int fullWords = length >>> 2;
+		for (int i = 0; i < fullWords; i++) {
+			final int offset = i << 2;
+			w[i * lanes + lane] = message[offset] << 24 | (message[offset + 1] & 0xff) << 16
+								  | (message[offset + 2] & 0xff) << 8 | message[offset + 3] & 0xff;
+		}
+		final int tail = length & 3;
+		int lastWord = 0x80 << (24 - 8 * tail);
+		for (int j = 0; j < tail; j++) {
+			lastWord |= (message[(fullWords << 2) + j] & 0xff) << (24 - 8 * j);
+		}
+		w[fullWords * lanes + lane] = lastWord;
+		for (int i = fullWords + 1; i < 15; i++) {
+			w[i * lanes + lane] = 0;
+		}
+		w[15 * lanes + lane] = length << 3;
+	}
+
+	// the bit of every lane's first digest word is gathered from the target filter at once
+	private int lookUp(IntVector firstWords, int count) {
+		firstWords.lanewise(VectorOperators.LSHR, HashTargets.FILTER_WORD_SHIFT).intoArray(filterIndices, 0);
+		final IntVector filterWords = IntVector.fromArray(SPECIES, targets.filter(), 0, filterIndices, 0);
+		final IntVector bits = firstWords.lanewise(VectorOperators.LSHR, HashTargets.FILTER_BIT_SHIFT).and(31);
+		int candidates = (int) filterWords.lanewise(VectorOperators.LSHR, bits)
+										  .and(1)
+										  .compare(VectorOperators.NE, 0)
+										  .toLong();
+		candidates &= (int) ((1L << count) - 1);
+
+		int matches = 0;
+		while (candidates != 0) {
+			final int lane = Integer.numberOfTrailingZeros(candidates);
+			candidates &= candidates - 1;
+			for (int j = 0; j < 8; j++) {
+				laneDigest[j] = digests[j * lanes + lane];
+			}
+			final int index = targets.indexOf(laneDigest);
+			if (index >= 0) {
+				targetIndices[lane] = index;
+				matches |= 1 << lane;
+			}
+		}
+		return matches;
+	}
+}
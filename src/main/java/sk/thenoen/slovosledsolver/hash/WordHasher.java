@@ -0,0 +1,19 @@
+package sk.thenoen.slovosledsolver.hash;
+
+/**
+ * Hashes candidate words with SHA-256 and looks the digest up in {@link HashTargets}. Instances are not thread-safe.
+ */
+public interface WordHasher {
+
+	/**
+	 * @param word            buffer holding the UTF-8 bytes of the word
+	 * @param length          number of bytes of the word
+	 * @param unchangedLength number of leading bytes that did not change since the previous call
+	 * @return index of the matching target, -1 if the word is not a target
+	 */
+	int find(byte[] word, int length, int unchangedLength);
+
+	default int find(byte[] word) {
+		return find(word, word.length, 0);
+	}
+}
@@ -112,6 +112,13 @@ public class Game {
 	}
 
 	private long calculateBonusScore(String selectedWord) {
+		return calculateBonusScore(bonus, tiles, selectedWord);
+	}
+
+	/**
+	 * @return bonus score of the word while the bonus is active, it does not depend on the state of the tiles
+	 */
+	public static long calculateBonusScore(Bonus bonus, List<Tile> tiles, String selectedWord) {
 
 		switch (bonus.getIndex()) {
 			case 0:
@@ -138,7 +145,12 @@ public class Game {
 				return "AEIOUYÁÉÍÓÚÝÄ".contains(Character.toString(selectedWord.charAt(selectedWord.length() - 1))) ? bonus.getValue() : 0;
 
 			case 8:
-				final String expectedLetter = tiles.get(LocalDate.now().getMonthValue() - 1).getLetter();
+				// letter of the tile of the current month, a shorter board has none
+				final int monthTile = LocalDate.now().getMonthValue() - 1;
+				if (monthTile >= tiles.size()) {
+					return 0;
+				}
+				final String expectedLetter = tiles.get(monthTile).getLetter();
 				return selectedWord.contains(expectedLetter) ? bonus.getValue() : 0;
 			default:
 				throw new IllegalStateException("Unexpected value: " + bonus.getIndex());
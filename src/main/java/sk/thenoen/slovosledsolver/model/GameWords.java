@@ -0,0 +1,94 @@
+package sk.thenoen.slovosledsolver.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Words of the games with the tables the solvers play them from: length, bonus score and the tile masks of the
+ * distinct selections of each word, indexed like the word list. Scores come from a {@link ScoreKernel}.
+ * <p>
+ * Instances are immutable and may be shared by threads.
+ */
+public final class GameWords {
+
+	/**
+	 * Bound of a word without selections.
+	 */
+	public static final long NO_BOUND = Long.MIN_VALUE;
+
+	private final ScoreKernel scoreKernel;
+	private final List<String> words;
+	private final int[] lengths;
+	private final long[] bonusScores; // while the bonus is active
+	private final long[] bonusBounds; // the bonus may be activated later, never negative
+	private final int[][] selections;
+
+	/**
+	 * @param wordSelections tile masks of the distinct selections of each word
+	 */
+	public GameWords(List<String> words, List<Tile> tiles, Bonus bonus, Map<String, int[]> wordSelections) {
+		scoreKernel = new ScoreKernel(tiles, bonus);
+		this.words = List.copyOf(words);
+		lengths = new int[words.size()];
+		bonusScores = new long[words.size()];
+		bonusBounds = new long[words.size()];
+		selections = new int[words.size()][];
+		for (int i = 0; i < words.size(); i++) {
+			final String word = words.get(i);
+			lengths[i] = word.length();
+			bonusScores[i] = scoreKernel.bonusScore(word);
+			bonusBounds[i] = Math.max(0, bonusScores[i]);
+			selections[i] = wordSelections.get(word);
+		}
+	}
+
+	public ScoreKernel scoreKernel() {
+		return scoreKernel;
+	}
+
+	public int size() {
+		return words.size();
+	}
+
+	public String word(int word) {
+		return words.get(word);
+	}
+
+	public int[] selections(int word) {
+		return selections[word];
+	}
+
+	/**
+	 * @return score of the word played with the selection in the state
+	 */
+	public long score(long state, int word, int selection, boolean bonusActive) {
+		return (long) scoreKernel.wordSum(state, selection) * lengths[word] + (bonusActive ? bonusScores[word] : 0);
+	}
+
+	/**
+	 * @return upper bound of the score of the word played as one of the next words, its selection with the highest
+	 * tile values reachable before it plus its bonus, {@link #NO_BOUND} if the word has no selections
+	 */
+	public long bound(long state, int word, int remainingWords) {
+		long bound = NO_BOUND;
+		for (int selection : selections[word]) {
+			bound = Math.max(bound, (long) scoreKernel.peakWordSum(state, selection, remainingWords) * lengths[word] + bonusBounds[word]);
+		}
+		return bound;
+	}
+
+	/**
+	 * @return score of the game of the words played with the selections in their order, like {@link Game#play()}
+	 */
+	public long play(int[] wordIndices, int[] wordSelections) {
+		long state = ScoreKernel.INITIAL_STATE;
+		boolean bonusActive = false;
+		long score = 0;
+		for (int i = 0; i < wordIndices.length; i++) {
+			bonusActive = bonusActive || scoreKernel.isBonusActive(state);
+			score += score(state, wordIndices[i], wordSelections[i], bonusActive);
+			state = scoreKernel.use(state, wordSelections[i]);
+		}
+		return score;
+	}
+}
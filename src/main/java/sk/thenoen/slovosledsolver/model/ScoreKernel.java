@@ -0,0 +1,179 @@
+package sk.thenoen.slovosledsolver.model;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Primitive form of {@link Game} for the hot loop. The usage of the tiles during a game is packed in a long state,
+ * 4 bits per tile, and a selection of tiles is a bit mask. Tile values are looked up in tables of their progression
+ * in {@link Tile#incrementUsageCount()}, nothing is allocated while playing.
+ * <p>
+ * A state counts up to 15 uses of a tile, enough for any game of up to 15 words.
+ */
+public final class ScoreKernel {
+
+	public static final int MAX_TILES = Long.SIZE / 4;
+	public static final long INITIAL_STATE = 0;
+
+	private static final int USAGE_BITS = 4;
+	private static final int MAX_USAGE = (1 << USAGE_BITS) - 1;
+	private static final int BONUS_COLUMNS = 4;
+
+	private final Bonus bonus;
+	private final List<Tile> tiles;
+	private final int[] values; // value of a tile after uses, indexed by tile << USAGE_BITS | uses
+	private final int[] bonusValues; // same as values, 0 once the tile reached max
+	private final int[] peakValues; // highest value of a tile within the next words, indexed by values index << USAGE_BITS | words - 1
+	private final long[] usageIncrements; // state increment of a selection mask
+	private final int[] blockOrigins; // top left tiles of the 2x2 blocks of the bonus
+	private final int[] patternOffsets; // offsets of the non-zero pattern digits within a block
+	private final int[] patternValues;
+
+	public ScoreKernel(List<Tile> tiles, Bonus bonus) {
+		if (tiles.size() > MAX_TILES) {
+			throw new IllegalArgumentException("Too many tiles: " + tiles.size());
+		}
+		this.bonus = bonus;
+		this.tiles = tiles;
+
+		values = new int[tiles.size() << USAGE_BITS];
+		bonusValues = new int[values.length];
+		for (int i = 0; i < tiles.size(); i++) {
+			// reached max is not copied by Tile.copy, every game starts without it
+			final Tile tile = new Tile();
+			tile.setValue(tiles.get(i).getValue());
+			tile.setUsageCount(tiles.get(i).getUsageCount());
+			for (int uses = 0; uses <= MAX_USAGE; uses++) {
+				values[i << USAGE_BITS | uses] = tile.getValue();
+				bonusValues[i << USAGE_BITS | uses] = tile.isReachedMax() ? 0 : tile.getValue();
+				tile.incrementUsageCount();
+			}
+		}
+
+		peakValues = new int[values.length << USAGE_BITS];
+		for (int index = 0; index < values.length; index++) {
+			final int uses = index & MAX_USAGE;
+			int peak = 0;
+			for (int words = 1; words <= MAX_USAGE + 1; words++) {
+				peak = Math.max(peak, values[index - uses + Math.min(uses + words - 1, MAX_USAGE)]);
+				peakValues[index << USAGE_BITS | words - 1] = peak;
+			}
+		}
+
+		usageIncrements = new long[1 << tiles.size()];
+		for (int mask = 1; mask < usageIncrements.length; mask++) {
+			final int tile = Integer.numberOfTrailingZeros(mask);
+			usageIncrements[mask] = usageIncrements[mask & mask - 1] + (1L << tile * USAGE_BITS);
+		}
+
+		if (bonus.getPattern() == null) {
+			blockOrigins = new int[0];
+			patternOffsets = new int[0];
+			patternValues = new int[0];
+		} else {
+			blockOrigins = IntStream.range(0, Math.max(0, tiles.size() - BONUS_COLUMNS))
+									.filter(i -> i % BONUS_COLUMNS <= BONUS_COLUMNS - 2)
+									.toArray();
+			final int[] pattern = bonus.getPatternAsArray();
+			final int[] offsets = {0, 1, BONUS_COLUMNS, BONUS_COLUMNS + 1};
+			patternOffsets = IntStream.range(0, offsets.length).filter(j -> pattern[j] != 0).map(j -> offsets[j]).toArray();
+			patternValues = IntStream.of(pattern).limit(offsets.length).filter(value -> value != 0).toArray();
+		}
+	}
+
+	/**
+	 * @return mask of the tiles with the given indices
+	 */
+	public static int mask(List<Integer> selection) {
+		int mask = 0;
+		for (int tile : selection) {
+			if ((mask & 1 << tile) != 0) {
+				throw new IllegalArgumentException("Tile " + tile + " selected twice: " + selection);
+			}
+			mask |= 1 << tile;
+		}
+		return mask;
+	}
+
+	/**
+	 * @return sum of the values of the selected tiles before they are used
+	 */
+	public int wordSum(long state, int mask) {
+		int sum = 0;
+		for (int remaining = mask; remaining != 0; remaining &= remaining - 1) {
+			final int tile = Integer.numberOfTrailingZeros(remaining);
+			sum += values[tile << USAGE_BITS | uses(state, tile)];
+		}
+		return sum;
+	}
+
+	/**
+	 * A tile is used at most once by a word, so when the selection is played as one of the next {@code words} words,
+	 * each of its tiles has been used by fewer than {@code words} words in between.
+	 *
+	 * @return upper bound of the word sum of the selection played within the next words
+	 */
+	public int peakWordSum(long state, int mask, int words) {
+		final int ahead = Math.min(words, MAX_USAGE + 1) - 1;
+		int sum = 0;
+		for (int remaining = mask; remaining != 0; remaining &= remaining - 1) {
+			final int tile = Integer.numberOfTrailingZeros(remaining);
+			sum += peakValues[(tile << USAGE_BITS | uses(state, tile)) << USAGE_BITS | ahead];
+		}
+		return sum;
+	}
+
+	/**
+	 * @return state after the selected tiles are used
+	 */
+	public long use(long state, int mask) {
+		return state + usageIncrements[mask];
+	}
+
+	/**
+	 * @return whether a 2x2 block of the tiles matches the pattern of the bonus, same as {@link Game}
+	 */
+	public boolean isBonusActive(long state) {
+		for (int origin : blockOrigins) {
+			boolean match = true;
+			for (int j = 0; j < patternOffsets.length && match; j++) {
+				final int tile = origin + patternOffsets[j];
+				match = bonusValues[tile << USAGE_BITS | uses(state, tile)] == patternValues[j];
+			}
+			if (match) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return bonus score of the word while the bonus is active, to be computed once per word
+	 */
+	public long bonusScore(String word) {
+		return bonus.getPattern() != null ? Game.calculateBonusScore(bonus, tiles, word) : 0;
+	}
+
+	/**
+	 * Plays a game from the initial state like {@link Game#play()}.
+	 *
+	 * @param masks       selection of each word
+	 * @param wordLengths length of each word
+	 * @param bonusScores {@link #bonusScore(String)} of each word
+	 */
+	public long play(int[] masks, int[] wordLengths, long[] bonusScores) {
+		long state = INITIAL_STATE;
+		boolean bonusActive = false;
+		long score = 0;
+		for (int i = 0; i < masks.length; i++) {
+			bonusActive = bonusActive || isBonusActive(state);
+			score += (long) wordSum(state, masks[i]) * wordLengths[i] + (bonusActive ? bonusScores[i] : 0);
+			state = use(state, masks[i]);
+		}
+		return score;
+	}
+
+	private static int uses(long state, int tile) {
+		return (int) (state >>> tile * USAGE_BITS) & MAX_USAGE;
+	}
+}
@@ -0,0 +1,117 @@
+package sk.thenoen.slovosledsolver.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of finished work units of a long run, so a restarted run can skip them. Entries are tab-separated
+ * lines, the first line is the key of the run - a journal of another run is discarded. Writes are buffered and flushed
+ * at most once per {@link #FLUSH_INTERVAL_NANOS}, a killed run only repeats the units of the last interval.
+ */
+public class Journal {
+
+	private static final Logger logger = LoggerFactory.getLogger(Journal.class);
+
+	private static final long FLUSH_INTERVAL_NANOS = 1_000_000_000L;
+	private static final String SEPARATOR = "\t";
+
+	private final Path location;
+	private final List<String[]> entries = new ArrayList<>();
+	private BufferedWriter writer;
+	private long lastFlush = System.nanoTime();
+
+	private Journal(Path location) {
+		this.location = location;
+	}
+
+	/**
+	 * Journal which does not record anything.
+	 */
+	public static Journal disabled() {
+		return new Journal(null);
+	}
+
+	public static Journal open(Path location, String key) {
+		final Journal journal = new Journal(location);
+		try {
+			Files.createDirectories(location.toAbsolutePath().getParent());
+			String content = Files.exists(location) ? Files.readString(location, StandardCharsets.UTF_8) : "";
+			// the last line may be incomplete if the run was killed while writing it
+			content = content.substring(0, content.lastIndexOf('\n') + 1);
+			final String[] lines = content.split("\n");
+			if (lines.length > 0 && lines[0].equals(key)) {
+				for (int i = 1; i < lines.length; i++) {
+					journal.entries.add(lines[i].split(SEPARATOR, -1));
+				}
+				logger.info("Resuming from journal {} with {} entries", location, journal.entries.size());
+			} else {
+				content = key + "\n";
+			}
+			Files.writeString(location, content, StandardCharsets.UTF_8);
+			journal.writer = Files.newBufferedWriter(location, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to open journal " + location, e);
+		}
+		return journal;
+	}
+
+	/**
+	 * @return entries recorded by previous runs with the same key
+	 */
+	public List<String[]> entries() {
+		return entries;
+	}
+
+	public synchronized void append(String... fields) {
+		if (writer == null) {
+			return;
+		}
+		try {
+			writer.write(String.join(SEPARATOR, fields));
+			writer.newLine();
+			if (System.nanoTime() - lastFlush > FLUSH_INTERVAL_NANOS) {
+				flush();
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to write journal " + location, e);
+		}
+	}
+
+	public synchronized void flush() {
+		if (writer == null) {
+			return;
+		}
+		try {
+			writer.flush();
+			lastFlush = System.nanoTime();
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to write journal " + location, e);
+		}
+	}
+
+	/**
+	 * Deletes the journal of a finished run.
+	 */
+	public synchronized void complete() {
+		if (writer == null) {
+			return;
+		}
+		try {
+			writer.close();
+			writer = null;
+			Files.delete(location);
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to delete journal " + location, e);
+		}
+	}
+}
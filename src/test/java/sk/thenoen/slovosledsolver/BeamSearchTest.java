@@ -0,0 +1,75 @@
+package sk.thenoen.slovosledsolver;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import sk.thenoen.slovosledsolver.model.GameWords;
+
+class BeamSearchTest {
+
+	@Test
+	void findsExhaustiveOptimumAndPublishesImprovements() {
+		final Random random = new Random(7);
+		for (int round = 0; round < 20; round++) {
+			final GameWords gameWords = RandomBoards.gameWords(random, 0, 2);
+
+			final long optimum = RandomBoards.optimum(gameWords);
+			final List<Long> improvements = new ArrayList<>();
+			final GameSolution solution = new BeamSearch(gameWords, 1, 60).search(improved -> {
+				improvements.add(improved.score());
+				return true;
+			});
+			Assertions.assertEquals(optimum, solution.score());
+			for (int i = 1; i < improvements.size(); i++) {
+				Assertions.assertTrue(improvements.get(i - 1) < improvements.get(i));
+			}
+			if (solution.score() >= 0) {
+				Assertions.assertEquals(solution.score(), (long) improvements.getLast());
+				RandomBoards.assertPlayable(gameWords, solution);
+
+				final List<Long> stopped = new ArrayList<>();
+				final GameSolution first = new BeamSearch(gameWords, 1, 60).search(improved -> {
+					stopped.add(improved.score());
+					return false;
+				});
+				Assertions.assertEquals(List.of(improvements.getFirst()), stopped);
+				Assertions.assertEquals((long) improvements.getFirst(), first.score());
+			}
+		}
+	}
+
+	@Test
+	void finishesFirstPassAfterTimeBudget() {
+		final Random random = new Random(11);
+		for (int round = 0; round < 20; round++) {
+			final GameWords gameWords = RandomBoards.gameWords(random, 1, 3);
+
+			final GameSolution solution = new BeamSearch(gameWords, 1, 0).search(improved -> true);
+			if (RandomBoards.optimum(gameWords) >= 0) {
+				RandomBoards.assertPlayable(gameWords, solution);
+			} else {
+				Assertions.assertEquals(-1, solution.score());
+			}
+		}
+	}
+
+	@Test
+	void findsOrderOfKnownBoards() {
+		final GameWords growingTile = KnownBoards.growingTile();
+		final GameSolution growingTileSolution = new BeamSearch(growingTile, 1, 60).search(improved -> true);
+		Assertions.assertEquals(KnownBoards.GROWING_TILE_OPTIMUM, growingTileSolution.score());
+		Assertions.assertEquals("SEDLO", growingTile.word(growingTileSolution.wordIndices()[1]));
+		Assertions.assertEquals("KOLESO", growingTile.word(growingTileSolution.wordIndices()[2]));
+		RandomBoards.assertPlayable(growingTile, growingTileSolution);
+
+		final GameWords bonusOrder = KnownBoards.bonusOrder();
+		final GameSolution bonusOrderSolution = new BeamSearch(bonusOrder, 1, 60).search(improved -> true);
+		Assertions.assertEquals(KnownBoards.BONUS_ORDER_OPTIMUM, bonusOrderSolution.score());
+		Assertions.assertEquals("KOS", bonusOrder.word(bonusOrderSolution.wordIndices()[0]));
+		RandomBoards.assertPlayable(bonusOrder, bonusOrderSolution);
+	}
+}
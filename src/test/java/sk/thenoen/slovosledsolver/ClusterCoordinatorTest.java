@@ -0,0 +1,118 @@
+package sk.thenoen.slovosledsolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+
+import sk.thenoen.slovosledsolver.hash.HashBackend;
+import sk.thenoen.slovosledsolver.hash.HashTargets;
+import sk.thenoen.slovosledsolver.hash.MatchedTargets;
+import sk.thenoen.slovosledsolver.model.Bonus;
+import sk.thenoen.slovosledsolver.model.GameWords;
+import sk.thenoen.slovosledsolver.model.Tile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClusterCoordinatorTest {
+
+	private static final List<String> ALPHABET = List.of("L", "U", "P", "A", "Š", "Y");
+	private static final List<String> WORDS = List.of("LAP", "LUPA", "PAŠ", "PUL", "ŠUP", "ŠUPA");
+
+	@Test
+	void distributesSearchAndGamesOverLoopback() throws Exception {
+		final ClusterCoordinator coordinator = new ClusterCoordinator(0, 50, false);
+		final int port = coordinator.start();
+		final List<Thread> workers = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			final ClusterWorker worker = new ClusterWorker("localhost", port, HashBackend.JCA, 1, new LetterModel(""), new GameGenerator());
+			workers.add(Thread.ofPlatform().start(worker::run));
+		}
+
+		// the workers look for the targets the reverse index does not resolve, their words are added to it
+		final Path reverseIndex = Files.createTempDirectory("reverse-index").resolve("reverse-index.bin");
+		reverseIndex.toFile().deleteOnExit();
+		new ReverseIndex(reverseIndex.toString()).addWords(List.of("LAP", "ŠUPA"));
+		final SearchResult searchResult = wordsFinder(reverseIndex).search(ALPHABET, targets(), coordinator);
+		assertEquals(WORDS, searchResult.words());
+		assertTrue(searchResult.isComplete());
+		assertEquals(WORDS.size(), new ReverseIndex(reverseIndex.toString()).resolve(targets(), new MatchedTargets(targets()), new HashSet<>()));
+
+		final List<Tile> tiles = new ArrayList<>();
+		for (int i = 0; i < ALPHABET.size(); i++) {
+			final Tile tile = new Tile();
+			tile.setLetter(ALPHABET.get(i));
+			tile.setValue(i % 3 + 1);
+			tiles.add(tile);
+		}
+		final Bonus bonus = new Bonus();
+		bonus.setPattern("0000");
+		bonus.setValue(2);
+		bonus.setIndex(2);
+		assertEquals(bestScore(tiles, bonus), coordinator.playGames(WORDS, tiles, bonus));
+
+		// no bonus today
+		final Bonus noBonus = new Bonus();
+		assertEquals(bestScore(tiles, noBonus), coordinator.playGames(WORDS, tiles, noBonus));
+
+		coordinator.close();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+	}
+
+	@Test
+	void skipsSearchWithoutRemainingTargets() throws Exception {
+		final Path reverseIndex = Files.createTempDirectory("reverse-index").resolve("reverse-index.bin");
+		reverseIndex.toFile().deleteOnExit();
+		new ReverseIndex(reverseIndex.toString()).addWords(WORDS);
+
+		// no worker ever connects, a distributed search would wait for one
+		final ClusterCoordinator coordinator = new ClusterCoordinator(0, 50, false);
+		final SearchResult searchResult = wordsFinder(reverseIndex).search(ALPHABET, targets(), coordinator);
+		assertEquals(WORDS, searchResult.words());
+		assertTrue(searchResult.isComplete());
+		coordinator.close();
+	}
+
+	private static WordsFinder wordsFinder(Path reverseIndex) {
+		return new WordsFinder(WordsFinder.SearchMode.TILE_MASK,
+							   HashBackend.JCA,
+							   1,
+							   false,
+							   new WordList(""),
+							   new ReverseIndex(reverseIndex.toString()),
+							   new LetterModel(""),
+							   new Checkpoints(""));
+	}
+
+	private static HashTargets targets() throws Exception {
+		final String[] hashes = new String[WORDS.size()];
+		for (int i = 0; i < hashes.length; i++) {
+			hashes[i] = hash(WORDS.get(i));
+		}
+		return new HashTargets(hashes);
+	}
+
+	private static long bestScore(List<Tile> tiles, Bonus bonus) {
+		final GameEvaluator gameEvaluator = new GameEvaluator(new GameWords(WORDS, tiles, bonus, new GameGenerator().findDistinctWordsSelections(tiles, WORDS)));
+		long bestScore = 0;
+		final int[] wordIndices = new int[GameGenerator.WORDS_IN_GAME];
+		for (long rank = 0; rank < WordCombinations.count(WORDS.size(), GameGenerator.WORDS_IN_GAME); rank++) {
+			WordCombinations.unrank(rank, WORDS.size(), wordIndices);
+			bestScore = Math.max(bestScore, gameEvaluator.evaluate(wordIndices));
+		}
+		return bestScore;
+	}
+
+	private static String hash(String word) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(word.getBytes(StandardCharsets.UTF_8)));
+	}
+}
@@ -0,0 +1,84 @@
+package sk.thenoen.slovosledsolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import sk.thenoen.slovosledsolver.model.Bonus;
+import sk.thenoen.slovosledsolver.model.Game;
+import sk.thenoen.slovosledsolver.model.GameWords;
+import sk.thenoen.slovosledsolver.model.ScoreKernel;
+import sk.thenoen.slovosledsolver.model.Tile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GameEvaluatorTest {
+
+	private static final List<String> WORDS = RandomBoards.WORDS.subList(0, 6);
+
+	@Test
+	void playsGamesLikeGame() {
+		final Random random = new Random(42);
+		final List<Tile> tiles = RandomBoards.tiles(random, 2);
+		final Bonus bonus = RandomBoards.bonus("3030", 7, 2); // activated by tiles used twice
+		final Map<String, List<List<Integer>>> selections = new HashMap<>();
+		for (String word : WORDS) {
+			final List<List<Integer>> wordSelections = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				final List<Integer> tileIndices = new ArrayList<>(IntStream.range(0, tiles.size()).boxed().toList());
+				Collections.shuffle(tileIndices, random);
+				wordSelections.add(tileIndices.subList(0, word.length()));
+			}
+			selections.put(word, wordSelections);
+		}
+		final Map<String, int[]> selectionMasks = new HashMap<>();
+		selections.forEach((word, wordSelections) -> selectionMasks.put(word, wordSelections.stream().mapToInt(ScoreKernel::mask).toArray()));
+		final GameEvaluator gameEvaluator = new GameEvaluator(new GameWords(WORDS, tiles, bonus, selectionMasks));
+
+		final int[] wordIndices = new int[GameGenerator.WORDS_IN_GAME];
+		long bestScore = -1;
+		long bestRank = -1;
+		for (long rank = 0; rank < WordCombinations.count(WORDS.size(), wordIndices.length); rank++) {
+			WordCombinations.unrank(rank, WORDS.size(), wordIndices);
+			final List<String> words = IntStream.of(wordIndices).mapToObj(WORDS::get).toList();
+			final long score = play(tiles, bonus, words, selections, new ArrayList<>());
+			assertEquals(score, gameEvaluator.evaluate(wordIndices));
+			if (score > bestScore) {
+				bestScore = score;
+				bestRank = rank;
+			}
+		}
+
+		final long[] best = gameEvaluator.evaluate(0, 720);
+		assertEquals(bestScore, best[0]);
+		assertEquals(bestRank, best[1]);
+		final long[] lowerHalf = gameEvaluator.evaluate(0, bestRank);
+		final long[] upperHalf = gameEvaluator.evaluate(bestRank, 720);
+		assertEquals(bestRank, upperHalf[1]);
+		assertEquals(bestScore, Math.max(lowerHalf[0], upperHalf[0]));
+		assertEquals(-1, gameEvaluator.evaluate(5, 5)[0]);
+	}
+
+	private static long play(List<Tile> tiles,
+							 Bonus bonus,
+							 List<String> words,
+							 Map<String, List<List<Integer>>> selections,
+							 List<List<Integer>> wordSelections) {
+		if (wordSelections.size() == words.size()) {
+			return new Game(tiles, bonus, words, wordSelections).play();
+		}
+		long bestScore = 0;
+		for (List<Integer> wordSelection : selections.get(words.get(wordSelections.size()))) {
+			wordSelections.add(wordSelection);
+			bestScore = Math.max(bestScore, play(tiles, bonus, words, selections, wordSelections));
+			wordSelections.removeLast();
+		}
+		return bestScore;
+	}
+}
@@ -2,11 +2,8 @@ package sk.thenoen.slovosledsolver;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -16,6 +13,7 @@ import java.util.Map;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import sk.thenoen.slovosledsolver.model.Game;
+import sk.thenoen.slovosledsolver.model.ScoreKernel;
 import sk.thenoen.slovosledsolver.model.Tile;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,10 +21,6 @@ class GameGeneratorTest {
 
 	static PageDownloader pageDownloader = Mockito.mock(PageDownloader.class);
 	static PageParser pageParser;
-	private DataStorage dataStorageMock;
-
-	@Captor
-	private ArgumentCaptor<List<String>> wordListCaptor;
 
 	@BeforeAll
 	static void setUp() {
@@ -34,11 +28,6 @@ class GameGeneratorTest {
 		String pageContent = TestUtils.loadPageContent();
 		Mockito.when(pageDownloader.retrievePageContent()).thenReturn(pageContent);
 	}
-	
-	@BeforeEach
-	public void initDataStorage() {
-		dataStorageMock = Mockito.mock(DataStorage.class);
-	}
 
 
 //	@Test
@@ -87,15 +76,13 @@ class GameGeneratorTest {
 	void wordSelections() {
 		final List<Tile> tiles = pageParser.retrieveLetters();
 
-		final GameGenerator gameGenerator = new GameGenerator(dataStorageMock);
+		final GameGenerator gameGenerator = new GameGenerator();
 
 		final List<List<Integer>> wordSelections = gameGenerator.findAllPossibleWordSelections(tiles,"ŠUPA");
 
-		Mockito.verify(dataStorageMock, Mockito.times(2)).storeWordCombination(wordListCaptor.capture());
-
 		Assertions.assertEquals(2, wordSelections.size());
-		Assertions.assertEquals(List.of(7, 4, 6, 9), wordListCaptor.getAllValues().get(0));
-		Assertions.assertEquals(List.of(7, 8, 6, 9), wordListCaptor.getAllValues().get(1));
+		Assertions.assertEquals(List.of(7, 4, 6, 9), wordSelections.get(0));
+		Assertions.assertEquals(List.of(7, 8, 6, 9), wordSelections.get(1));
 	}
 
 	@Test
@@ -103,7 +90,7 @@ class GameGeneratorTest {
 		final List<Tile> tiles = pageParser.retrieveLetters();
 		tiles.get(0).setLetter("L");
 
-		final GameGenerator gameGenerator = new GameGenerator(dataStorageMock);
+		final GameGenerator gameGenerator = new GameGenerator();
 
 		Map<String, List<List<Integer>>> result = gameGenerator.findAllPossibleWordsSelections(tiles, List.of("ŠUPA", "LUPA", "LUPY", "LALA"));
 		Assertions.assertNotNull(result);
@@ -135,7 +122,7 @@ class GameGeneratorTest {
 		final List<Tile> tiles = pageParser.retrieveLetters();
 		tiles.get(0).setLetter("L");
 
-		final GameGenerator gameGenerator = new GameGenerator(dataStorageMock);
+		final GameGenerator gameGenerator = new GameGenerator();
 
 		Map<String, List<List<Integer>>> result = gameGenerator.findAllPossibleWordsSelections(tiles, List.of(testedWord));
 
@@ -147,9 +134,33 @@ class GameGeneratorTest {
 
 	}
 
+	@Test
+	void distinctWordSelections() {
+		final List<Tile> tiles = pageParser.retrieveLetters();
+		tiles.get(0).setLetter("L");
+
+		final GameGenerator gameGenerator = new GameGenerator();
+
+		for (String word : List.of("ŠUPA", "LUPA", "LUPY", "LALA", "LALU")) {
+			final int[] orderedSelectionMasks = gameGenerator.findAllPossibleWordSelections(tiles, word)
+															 .stream()
+															 .mapToInt(ScoreKernel::mask)
+															 .distinct()
+															 .sorted()
+															 .toArray();
+			Assertions.assertArrayEquals(orderedSelectionMasks, gameGenerator.findDistinctWordSelections(tiles, word));
+			for (int selection : orderedSelectionMasks) {
+				final List<Integer> wordSelection = gameGenerator.toWordSelection(tiles, word, selection);
+				Assertions.assertEquals(selection, ScoreKernel.mask(wordSelection));
+				Assertions.assertEquals(word, wordSelection.stream().map(tile -> tiles.get(tile).getLetter()).reduce("", String::concat));
+			}
+		}
+		Assertions.assertEquals(2, gameGenerator.findDistinctWordSelections(tiles, "LALU").length);
+	}
+
 //	@Test
 //	void generatingWordCombinations() {
-//		final GameGenerator gameGenerator = new GameGenerator(dataStorageMock);
+//		final GameGenerator gameGenerator = new GameGenerator();
 //
 //		final List<List<Short>> result = gameGenerator.generateAllPossibleWordCombinations(List.of("ŠUPA", "LUPA", "LUPY", "LALU", "PELU", "PAŠU"));
 //		Assertions.assertEquals(720, result.size());
@@ -160,7 +171,7 @@ class GameGeneratorTest {
 //		final List<Tile> tiles = pageParser.retrieveLetters();
 //		tiles.get(0).setLetter("L");
 //
-//		final GameGenerator gameGenerator = new GameGenerator(dataStorageMock);
+//		final GameGenerator gameGenerator = new GameGenerator();
 //
 //		final Map<List<String>, List<List<List<Integer>>>> result = gameGenerator.generateAllPossibleWordSelectionCombinations(tiles,
 //																															   List.of("ŠUPA", "LUPA", "LUPY", "LALU", "PELU", "PAŠU"));
@@ -177,7 +188,7 @@ class GameGeneratorTest {
 //	void generateGames() {
 //		final List<Tile> tiles = pageParser.retrieveLetters();
 //		tiles.get(0).setLetter("L");
-//		final GameGenerator gameGenerator = new GameGenerator(dataStorageMock);
+//		final GameGenerator gameGenerator = new GameGenerator();
 //
 //		final List<Game> games = gameGenerator.generateAllPossibleGames(tiles, List.of("ŠUPA", "LUPA", "LUPY", "LALU", "PELU", "PAŠU"));
 //
@@ -0,0 +1,46 @@
+package sk.thenoen.slovosledsolver;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import sk.thenoen.slovosledsolver.model.GameWords;
+
+class GameSearchTest {
+
+	@Test
+	void provesExhaustiveOptimum() {
+		final Random random = new Random(5);
+		for (int round = 0; round < 20; round++) {
+			final GameWords gameWords = RandomBoards.gameWords(random, 0, 2);
+
+			final long optimum = RandomBoards.optimum(gameWords);
+			final GameSolution solution = new GameSearch(gameWords, 0).search();
+			Assertions.assertEquals(optimum, solution.score());
+			Assertions.assertEquals(optimum, new GameSearch(gameWords, 1).search().score());
+			if (solution.score() >= 0) {
+				RandomBoards.assertPlayable(gameWords, solution);
+				Assertions.assertTrue(solution.prunedNodes() > 0);
+			}
+		}
+	}
+
+	@Test
+	void findsOrderOfKnownBoards() {
+		final GameWords growingTile = KnownBoards.growingTile();
+		Assertions.assertEquals(KnownBoards.GROWING_TILE_OPTIMUM, RandomBoards.optimum(growingTile));
+		final GameSolution growingTileSolution = new GameSearch(growingTile, 1).search();
+		Assertions.assertEquals(KnownBoards.GROWING_TILE_OPTIMUM, growingTileSolution.score());
+		Assertions.assertEquals("SEDLO", growingTile.word(growingTileSolution.wordIndices()[1]));
+		Assertions.assertEquals("KOLESO", growingTile.word(growingTileSolution.wordIndices()[2]));
+		RandomBoards.assertPlayable(growingTile, growingTileSolution);
+
+		final GameWords bonusOrder = KnownBoards.bonusOrder();
+		Assertions.assertEquals(KnownBoards.BONUS_ORDER_OPTIMUM, RandomBoards.optimum(bonusOrder));
+		final GameSolution bonusOrderSolution = new GameSearch(bonusOrder, 1).search();
+		Assertions.assertEquals(KnownBoards.BONUS_ORDER_OPTIMUM, bonusOrderSolution.score());
+		Assertions.assertEquals("KOS", bonusOrder.word(bonusOrderSolution.wordIndices()[0]));
+		RandomBoards.assertPlayable(bonusOrder, bonusOrderSolution);
+	}
+}
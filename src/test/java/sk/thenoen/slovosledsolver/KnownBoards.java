@@ -0,0 +1,64 @@
+package sk.thenoen.slovosledsolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import sk.thenoen.slovosledsolver.model.Bonus;
+import sk.thenoen.slovosledsolver.model.GameWords;
+import sk.thenoen.slovosledsolver.model.Tile;
+
+/**
+ * Hand-built boards of two rows of four tiles of value 1, their best games are worked out below.
+ */
+class KnownBoards {
+
+	/**
+	 * All the words take the first tile. Its value is 1, 2 and 3 in the first three words and 1 after, so the longest
+	 * word is the third one and the second longest the second one: 6 * 3 + 5 * 2 + (4 + 3 + 3) * 1.
+	 */
+	static final long GROWING_TILE_OPTIMUM = 38;
+
+	/**
+	 * KOS takes the first tile to value 2, which activates the bonus for the words after it. Each word takes a tile of
+	 * its own otherwise, so only the bonus depends on the order: KOS first, then AUTO, OKO, OSA and LES or PES with
+	 * 3 + 4 + 3 + 3 + 3 points and 5 points for each of their 3 + 2 + 2 + 1 vowels.
+	 */
+	static final long BONUS_ORDER_OPTIMUM = 56;
+
+	static GameWords growingTile() {
+		final List<String> words = List.of("OSA", "SEDLO", "OKO", "AUTO", "KOLESO");
+		return new GameWords(words,
+							 tiles(),
+							 new Bonus(),
+							 Map.of("OSA", new int[]{1},
+									"SEDLO", new int[]{1},
+									"OKO", new int[]{1},
+									"AUTO", new int[]{1},
+									"KOLESO", new int[]{1}));
+	}
+
+	static GameWords bonusOrder() {
+		final List<String> words = List.of("AUTO", "OKO", "OSA", "LES", "PES", "KOS");
+		return new GameWords(words,
+							 tiles(),
+							 RandomBoards.bonus("2000", 5, 2),
+							 Map.of("AUTO", new int[]{1 << 4},
+									"OKO", new int[]{1 << 5},
+									"OSA", new int[]{1 << 6},
+									"LES", new int[]{1 << 7},
+									"PES", new int[]{1 << 3},
+									"KOS", new int[]{1}));
+	}
+
+	private static List<Tile> tiles() {
+		final List<Tile> tiles = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			final Tile tile = new Tile();
+			tile.setLetter(String.valueOf((char) ('A' + i)));
+			tile.setValue(1);
+			tiles.add(tile);
+		}
+		return tiles;
+	}
+}
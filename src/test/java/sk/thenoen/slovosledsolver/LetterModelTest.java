@@ -0,0 +1,28 @@
+package sk.thenoen.slovosledsolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LetterModelTest {
+
+	@Test
+	void prefersContinuationsSeenInCorpus() throws Exception {
+		final Path corpus = Files.createTempFile("corpus", ".txt");
+		corpus.toFile().deleteOnExit();
+		Files.writeString(corpus, "Lupa, lupy a šupa.\nPlavé lupy.", StandardCharsets.UTF_8);
+		final LetterModel letterModel = new LetterModel(corpus.toString());
+
+		assertTrue(letterModel.probability(LetterModel.WORD_START, LetterModel.WORD_START, 'L')
+				   > letterModel.probability(LetterModel.WORD_START, LetterModel.WORD_START, 'Š'));
+		assertTrue(letterModel.probability('L', 'U', 'P') > letterModel.probability('L', 'U', 'A'));
+		// unseen trigram still gets the bigram and unigram estimates
+		assertTrue(letterModel.probability('Š', 'L', 'A') > 0);
+		assertEquals(0.0, letterModel.probability('Š', 'L', 'X'));
+	}
+}
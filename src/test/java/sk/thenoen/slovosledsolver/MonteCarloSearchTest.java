@@ -0,0 +1,64 @@
+package sk.thenoen.slovosledsolver;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import sk.thenoen.slovosledsolver.model.GameWords;
+
+class MonteCarloSearchTest {
+
+	@Test
+	void playsGamesUpToOptimum() {
+		final Random random = new Random(11);
+		for (int round = 0; round < 10; round++) {
+			final GameWords gameWords = RandomBoards.gameWords(random, 1, 2);
+
+			final long optimum = RandomBoards.optimum(gameWords);
+			final List<Long> improvements = new ArrayList<>();
+			final GameSolution solution = new MonteCarloSearch(gameWords, 2, 60, 2_000).search(improved -> {
+				improvements.add(improved.score());
+				return true;
+			});
+			Assertions.assertTrue(solution.score() <= optimum);
+			RandomBoards.assertPlayable(gameWords, solution);
+			Assertions.assertEquals(solution.score(), (long) improvements.getLast());
+			for (int i = 1; i < improvements.size(); i++) {
+				Assertions.assertTrue(improvements.get(i - 1) < improvements.get(i));
+			}
+		}
+	}
+
+	@Test
+	void reachesOptimumOfSmallBoard() {
+		final Random random = new Random(13);
+		final List<String> words = RandomBoards.WORDS.subList(0, 6);
+		final GameWords gameWords = new GameWords(words,
+												  RandomBoards.tiles(random, 3),
+												  RandomBoards.bonus("3030", 7, 2),
+												  RandomBoards.selections(random, words, 1, 1));
+
+		final GameSolution solution = new MonteCarloSearch(gameWords, 1, 60, 20_000).search(improved -> true);
+		Assertions.assertEquals(RandomBoards.optimum(gameWords), solution.score());
+		RandomBoards.assertPlayable(gameWords, solution);
+	}
+
+	@Test
+	void findsOrderOfKnownBoards() {
+		final GameWords growingTile = KnownBoards.growingTile();
+		final GameSolution growingTileSolution = new MonteCarloSearch(growingTile, 1, 60, 20_000).search(improved -> true);
+		Assertions.assertEquals(KnownBoards.GROWING_TILE_OPTIMUM, growingTileSolution.score());
+		Assertions.assertEquals("SEDLO", growingTile.word(growingTileSolution.wordIndices()[1]));
+		Assertions.assertEquals("KOLESO", growingTile.word(growingTileSolution.wordIndices()[2]));
+		RandomBoards.assertPlayable(growingTile, growingTileSolution);
+
+		final GameWords bonusOrder = KnownBoards.bonusOrder();
+		final GameSolution bonusOrderSolution = new MonteCarloSearch(bonusOrder, 1, 60, 20_000).search(improved -> true);
+		Assertions.assertEquals(KnownBoards.BONUS_ORDER_OPTIMUM, bonusOrderSolution.score());
+		Assertions.assertEquals("KOS", bonusOrder.word(bonusOrderSolution.wordIndices()[0]));
+		RandomBoards.assertPlayable(bonusOrder, bonusOrderSolution);
+	}
+}
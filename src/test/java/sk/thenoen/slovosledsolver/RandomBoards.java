@@ -0,0 +1,87 @@
+package sk.thenoen.slovosledsolver;
+
+import org.junit.jupiter.api.Assertions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import sk.thenoen.slovosledsolver.model.Bonus;
+import sk.thenoen.slovosledsolver.model.GameWords;
+import sk.thenoen.slovosledsolver.model.Tile;
+
+/**
+ * Random boards of 12 tiles with random selection masks of the words, small enough for the exhaustive solvers to be
+ * the oracle of the others.
+ */
+class RandomBoards {
+
+	static final List<String> WORDS = List.of("OKO", "AUTO", "SEDLO", "OSA", "KOLESO", "ÚLY", "LES", "KOSA", "PES");
+
+	private static final int TILES = 12;
+
+	static List<Tile> tiles(Random random, int maxValue) {
+		final List<Tile> tiles = new ArrayList<>();
+		for (int i = 0; i < TILES; i++) {
+			final Tile tile = new Tile();
+			tile.setLetter(String.valueOf((char) ('A' + i)));
+			tile.setValue(1 + random.nextInt(maxValue));
+			tiles.add(tile);
+		}
+		return tiles;
+	}
+
+	static Bonus bonus(String pattern, int value, int index) {
+		final Bonus bonus = new Bonus();
+		bonus.setPattern(pattern);
+		bonus.setValue(value);
+		bonus.setIndex(index);
+		return bonus;
+	}
+
+	/**
+	 * @return bonus of a random pattern and any index but the month letter one
+	 */
+	static Bonus bonus(Random random) {
+		final String pattern = IntStream.range(0, 4).mapToObj(i -> String.valueOf(random.nextInt(4))).reduce("", String::concat);
+		return bonus(pattern, 1 + random.nextInt(10), random.nextInt(8));
+	}
+
+	/**
+	 * @return from minSelections to maxSelections random tile masks of each word
+	 */
+	static Map<String, int[]> selections(Random random, List<String> words, int minSelections, int maxSelections) {
+		final Map<String, int[]> selections = new HashMap<>();
+		for (String word : words) {
+			selections.put(word, random.ints(minSelections + random.nextInt(maxSelections - minSelections + 1), 0, 1 << TILES).toArray());
+		}
+		return selections;
+	}
+
+	/**
+	 * @return {@link #WORDS} on a random board with a random bonus
+	 */
+	static GameWords gameWords(Random random, int minSelections, int maxSelections) {
+		final List<Tile> tiles = tiles(random, 3);
+		final Bonus bonus = bonus(random);
+		return new GameWords(WORDS, tiles, bonus, selections(random, WORDS, minSelections, maxSelections));
+	}
+
+	/**
+	 * @return best score of all the games, -1 if none can be played
+	 */
+	static long optimum(GameWords gameWords) {
+		return new WordSetEvaluator(gameWords).evaluate(0, WordCombinations.countSets(gameWords.size(), GameGenerator.WORDS_IN_GAME))[0];
+	}
+
+	/**
+	 * Asserts that the solution is a game of distinct words that scores its score.
+	 */
+	static void assertPlayable(GameWords gameWords, GameSolution solution) {
+		Assertions.assertEquals(GameGenerator.WORDS_IN_GAME, IntStream.of(solution.wordIndices()).distinct().count());
+		Assertions.assertEquals(solution.score(), gameWords.play(solution.wordIndices(), solution.selections()));
+	}
+}
@@ -0,0 +1,50 @@
+package sk.thenoen.slovosledsolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+import sk.thenoen.slovosledsolver.hash.HashTargets;
+import sk.thenoen.slovosledsolver.hash.MatchedTargets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReverseIndexTest {
+
+	@Test
+	void resolvesWordsOfPreviousRuns() throws Exception {
+		final Path location = Files.createTempDirectory("reverse-index").resolve("reverse-index.bin");
+		location.toFile().deleteOnExit();
+
+		new ReverseIndex(location.toString()).addWords(List.of("ŠUPA", "LUPA"));
+		final ReverseIndex reverseIndex = new ReverseIndex(location.toString());
+		reverseIndex.addWords(List.of("LUPA", "PLAVE"));
+
+		final HashTargets targets = new HashTargets(new String[]{hash("PLAVE"), hash("ŠUPA"), hash("VYPLA")});
+		final MatchedTargets matchedTargets = new MatchedTargets(targets);
+		final Set<String> foundWords = new HashSet<>();
+
+		assertEquals(2, new ReverseIndex(location.toString()).resolve(targets, matchedTargets, foundWords));
+		assertEquals(Set.of("PLAVE", "ŠUPA"), foundWords);
+		assertTrue(matchedTargets.isMatched(0));
+		assertFalse(matchedTargets.isMatched(2));
+	}
+
+	@Test
+	void isDisabledWithoutLocation() {
+		assertFalse(new ReverseIndex("").isEnabled());
+	}
+
+	private static String hash(String word) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(word.getBytes(StandardCharsets.UTF_8)));
+	}
+}
@@ -0,0 +1,28 @@
+package sk.thenoen.slovosledsolver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TranspositionTableTest {
+
+	@Test
+	void keepsTighterBoundsAndEvictsShallowEntries() {
+		final TranspositionTable table = new TranspositionTable(0);
+		assertEquals(2, table.capacity());
+
+		table.put(0x12, 0b101, 3, false, 40);
+		table.put(0x12, 0b101, 3, false, 50);
+		assertEquals(40, table.get(0x12, 0b101, 3, false));
+		assertEquals(TranspositionTable.MISSING, table.get(0x12, 0b101, 3, true));
+		assertEquals(TranspositionTable.MISSING, table.get(0x12, 0b110, 3, false));
+
+		table.put(0x34, 0b11, 2, true, 20);
+		table.put(0x56, 0b111, 2, false, 30);
+		assertEquals(1, table.evictions());
+		assertEquals(40, table.get(0x12, 0b101, 3, false));
+		assertEquals(TranspositionTable.MISSING, table.get(0x34, 0b11, 2, true));
+		assertEquals(30, table.get(0x56, 0b111, 2, false));
+		assertEquals(3.0 / 6, table.hitRate());
+	}
+}
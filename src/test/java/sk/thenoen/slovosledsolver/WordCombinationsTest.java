@@ -0,0 +1,78 @@
+package sk.thenoen.slovosledsolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WordCombinationsTest {
+
+	@Test
+	void unranksInGenerationOrder() {
+		assertEquals(120, WordCombinations.count(6, 3));
+
+		long rank = 0;
+		final int[] combination = new int[3];
+		for (int first = 0; first < 6; first++) {
+			for (int second = 0; second < 6; second++) {
+				for (int third = 0; third < 6; third++) {
+					if (first == second || first == third || second == third) {
+						continue;
+					}
+					WordCombinations.unrank(rank++, 6, combination);
+					assertArrayEquals(new int[]{first, second, third}, combination);
+				}
+			}
+		}
+	}
+
+	@Test
+	void iteratesAndRanksAllSelections() {
+		final int words = 7;
+		final int[] combination = new int[5];
+		final int[] unranked = new int[5];
+		WordCombinations.unrank(0, words, combination);
+		for (long rank = 0; rank < WordCombinations.count(words, 5); rank++) {
+			WordCombinations.unrank(rank, words, unranked);
+			assertArrayEquals(unranked, combination);
+			assertEquals(rank, WordCombinations.rank(combination, words));
+			assertEquals(rank < WordCombinations.count(words, 5) - 1, WordCombinations.next(combination, words));
+		}
+		assertArrayEquals(new int[]{6, 5, 4, 3, 2}, combination);
+	}
+
+	@Test
+	void ranksSelectionsOfManyWords() {
+		final int[] combination = {63, 0, 62, 1, 40};
+		final long rank = WordCombinations.rank(combination, 64);
+		final int[] unranked = new int[5];
+		WordCombinations.unrank(rank, 64, unranked);
+		assertArrayEquals(combination, unranked);
+		assertTrue(WordCombinations.next(unranked, 64));
+		assertEquals(rank + 1, WordCombinations.rank(unranked, 64));
+		assertFalse(WordCombinations.next(new int[]{2, 1, 0}, 3));
+	}
+
+	@Test
+	void ranksSetsInIncreasingOrder() {
+		final int words = 8;
+		assertEquals(56, WordCombinations.countSets(words, 5));
+		final int[] set = new int[5];
+		final int[] unranked = new int[5];
+		WordCombinations.unrankSet(0, words, set);
+		assertArrayEquals(new int[]{0, 1, 2, 3, 4}, set);
+		for (long rank = 0; rank < WordCombinations.countSets(words, 5); rank++) {
+			WordCombinations.unrankSet(rank, words, unranked);
+			assertArrayEquals(unranked, set);
+			assertEquals(rank, WordCombinations.rankSet(set, words));
+			final int[] previous = set.clone();
+			assertEquals(rank < WordCombinations.countSets(words, 5) - 1, WordCombinations.nextSet(set, words));
+			assertTrue(Arrays.compare(previous, set) < 0 || rank == WordCombinations.countSets(words, 5) - 1);
+		}
+		assertArrayEquals(new int[]{3, 4, 5, 6, 7}, set);
+	}
+}
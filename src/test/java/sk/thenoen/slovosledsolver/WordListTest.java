@@ -0,0 +1,45 @@
+package sk.thenoen.slovosledsolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class WordListTest {
+
+	@Test
+	void keepsWordsSpellableFromTiles() throws Exception {
+		final Path file = Files.createTempFile("word-list", ".dic");
+		file.toFile().deleteOnExit();
+		Files.writeString(file, "5\nšupa/AB\r\nlupa\nlupy\npupa\nšu\nľalia\nšupy", StandardCharsets.UTF_8);
+
+		final List<String> words = new WordList(file.toString()).spellableWords(List.of("Š", "U", "P", "A", "L", "Y"));
+
+		assertEquals(List.of("ŠUPA", "LUPA", "LUPY", "ŠUPY"), words);
+	}
+
+	@Test
+	void isNotAvailableWithoutFile() {
+		assertFalse(new WordList("").isAvailable());
+		assertFalse(new WordList("/nonexistent/word-list.dic").isAvailable());
+	}
+
+	@Test
+	void digestFollowsContent() throws Exception {
+		final Path file = Files.createTempFile("word-list", ".dic");
+		file.toFile().deleteOnExit();
+		Files.writeString(file, "šupa\nlupa", StandardCharsets.UTF_8);
+		final String digest = new WordList(file.toString()).digest();
+		assertEquals(digest, new WordList(file.toString()).digest());
+
+		Files.writeString(file, "šupa\nlupy", StandardCharsets.UTF_8);
+		assertNotEquals(digest, new WordList(file.toString()).digest());
+		assertEquals("", new WordList("").digest());
+	}
+}
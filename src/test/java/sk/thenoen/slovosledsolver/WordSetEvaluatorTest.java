@@ -0,0 +1,51 @@
+package sk.thenoen.slovosledsolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import sk.thenoen.slovosledsolver.model.GameWords;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WordSetEvaluatorTest {
+
+	private static final List<String> WORDS = RandomBoards.WORDS.subList(0, 7);
+
+	@Test
+	void findsBestOrderOfEverySet() {
+		final Random random = new Random(11);
+		final GameWords gameWords = new GameWords(WORDS,
+												  RandomBoards.tiles(random, 2),
+												  RandomBoards.bonus("3030", 7, 2), // activated by tiles used twice
+												  RandomBoards.selections(random, WORDS, 1, 3));
+		final GameEvaluator gameEvaluator = new GameEvaluator(gameWords);
+		final WordSetEvaluator wordSetEvaluator = new WordSetEvaluator(gameWords);
+
+		final int[] set = new int[GameGenerator.WORDS_IN_GAME];
+		final int[] order = new int[GameGenerator.WORDS_IN_GAME];
+		long bestScore = -1;
+		long bestRank = -1;
+		for (long rank = 0; rank < WordCombinations.countSets(WORDS.size(), set.length); rank++) {
+			WordCombinations.unrankSet(rank, WORDS.size(), set);
+			long setScore = -1;
+			for (long permutation = 0; permutation < WordCombinations.count(set.length, set.length); permutation++) {
+				WordCombinations.unrank(permutation, set.length, order);
+				for (int i = 0; i < order.length; i++) {
+					order[i] = set[order[i]];
+				}
+				setScore = Math.max(setScore, gameEvaluator.evaluate(order));
+			}
+			assertEquals(setScore, wordSetEvaluator.evaluate(rank, rank + 1)[0]);
+			assertEquals(setScore, gameEvaluator.evaluate(wordSetEvaluator.bestOrder(rank)));
+			if (setScore > bestScore) {
+				bestScore = setScore;
+				bestRank = rank;
+			}
+		}
+
+		assertArrayEquals(new long[]{bestScore, bestRank}, wordSetEvaluator.evaluate(0, WordCombinations.countSets(WORDS.size(), set.length)));
+	}
+}
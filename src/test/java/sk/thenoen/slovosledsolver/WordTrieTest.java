@@ -0,0 +1,35 @@
+package sk.thenoen.slovosledsolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WordTrieTest {
+
+	private static final List<String> ALPHABET = List.of("Š", "U", "P", "A", "L", "U");
+
+	@Test
+	void keepsPrefixesOfWords() {
+		final WordTrie trie = new WordTrie(ALPHABET, List.of("ŠUPA", "LUPA", "LUP"));
+
+		final int l = trie.child(WordTrie.ROOT, trie.letterIndex("L"));
+		final int lup = trie.child(trie.child(l, trie.letterIndex("U")), trie.letterIndex("P"));
+		assertTrue(lup > 0);
+		assertTrue(trie.isWord(lup));
+		assertTrue(trie.isWord(trie.child(lup, trie.letterIndex("A"))));
+		assertFalse(trie.isWord(l));
+
+		assertEquals(-1, trie.child(WordTrie.ROOT, trie.letterIndex("U")));
+		assertEquals(9, trie.size());
+	}
+
+	@Test
+	void rejectsWordWithOtherLetters() {
+		assertThrows(IllegalArgumentException.class, () -> new WordTrie(ALPHABET, List.of("PES")));
+	}
+}
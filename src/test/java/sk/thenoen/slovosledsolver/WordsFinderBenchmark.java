@@ -0,0 +1,69 @@
+package sk.thenoen.slovosledsolver;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import sk.thenoen.slovosledsolver.hash.HashBackend;
+import sk.thenoen.slovosledsolver.hash.HashTargets;
+
+// Not a test - run main() to compare the search modes on the first 9 tiles of the cached test page
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WordsFinderBenchmark {
+
+	private static final int TILE_COUNT = 9;
+
+	@Param({"STRING", "PREFIX_DIGEST", "TILE_MASK"})
+	private WordsFinder.SearchMode searchMode;
+
+	private List<String> alphabet;
+	private HashTargets targets;
+	private WordsFinder wordsFinder;
+
+	@Setup(Level.Trial)
+	public void loadPage() {
+		final PageDownloader pageDownloader = Mockito.mock(PageDownloader.class);
+		Mockito.when(pageDownloader.retrievePageContent()).thenReturn(TestUtils.loadPageContent());
+		final PageParser pageParser = new PageParser(pageDownloader, new ObjectMapper());
+
+		alphabet = pageParser.retrieveGrid().subList(0, TILE_COUNT);
+		targets = new HashTargets(pageParser.retrieveHashes());
+	}
+
+	@Setup(Level.Trial)
+	public void createWordsFinder() {
+		wordsFinder = new WordsFinder(searchMode, HashBackend.AUTO, 0, false, new WordList(""), new ReverseIndex(""), new LetterModel(""), new Checkpoints(""));
+	}
+
+	@Benchmark
+	public SearchResult search() {
+		return wordsFinder.search(alphabet, targets);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(WordsFinderBenchmark.class.getSimpleName())
+									   .build()).run();
+	}
+}
@@ -0,0 +1,60 @@
+package sk.thenoen.slovosledsolver.hash;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import sk.thenoen.slovosledsolver.PageDownloader;
+import sk.thenoen.slovosledsolver.PageParser;
+import sk.thenoen.slovosledsolver.TestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashTargetsTest {
+
+	private static String[] hashes;
+
+	@BeforeAll
+	static void setUp() {
+		final PageDownloader pageDownloader = Mockito.mock(PageDownloader.class);
+		Mockito.when(pageDownloader.retrievePageContent()).thenReturn(TestUtils.loadPageContent());
+		hashes = new PageParser(pageDownloader, new ObjectMapper()).retrieveHashes();
+	}
+
+	@Test
+	void findsEveryTarget() {
+		final HashTargets targets = new HashTargets(hashes);
+
+		assertEquals(456, targets.size());
+		for (int i = 0; i < hashes.length; i++) {
+			final byte[] digest = HexFormat.of().parseHex(hashes[i]);
+			assertEquals(i, targets.indexOf(digest));
+			assertEquals(hashes[i], targets.getHash(i));
+		}
+	}
+
+	@Test
+	void findsWordDigest() throws Exception {
+		final HashTargets targets = new HashTargets(hashes);
+		final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+		assertTrue(targets.contains(digest.digest("ŠUPA".getBytes(StandardCharsets.UTF_8))));
+		assertFalse(targets.contains(digest.digest("ŠUPAX".getBytes(StandardCharsets.UTF_8))));
+	}
+
+	@Test
+	void comparesWholeDigest() {
+		final HashTargets targets = new HashTargets(hashes);
+		final byte[] digest = HexFormat.of().parseHex(hashes[0]);
+		digest[31] ^= 1;
+
+		assertFalse(targets.contains(digest));
+	}
+}
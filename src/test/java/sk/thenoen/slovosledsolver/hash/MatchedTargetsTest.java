@@ -0,0 +1,38 @@
+package sk.thenoen.slovosledsolver.hash;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatchedTargetsTest {
+
+	private static final String FIRST = "0000000000000000000000000000000000000000000000000000000000000001";
+	private static final String SECOND = "0000000000000000000000000000000000000000000000000000000000000002";
+
+	@Test
+	void completesWhenEveryTargetIsMatched() {
+		final MatchedTargets matchedTargets = new MatchedTargets(new HashTargets(new String[]{FIRST, SECOND}));
+
+		assertTrue(matchedTargets.match(1));
+		assertFalse(matchedTargets.isComplete());
+		assertFalse(matchedTargets.match(1));
+		assertEquals(1, matchedTargets.remaining());
+
+		assertTrue(matchedTargets.match(0));
+		assertTrue(matchedTargets.isMatched(0));
+		assertTrue(matchedTargets.isComplete());
+	}
+
+	@Test
+	void ignoresRepeatedHash() {
+		final HashTargets targets = new HashTargets(new String[]{FIRST, SECOND, FIRST});
+		final MatchedTargets matchedTargets = new MatchedTargets(targets);
+
+		assertEquals(2, targets.distinctSize());
+		assertTrue(matchedTargets.match(0));
+		assertTrue(matchedTargets.match(1));
+		assertTrue(matchedTargets.isComplete());
+	}
+}
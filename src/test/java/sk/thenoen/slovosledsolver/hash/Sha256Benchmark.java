@@ -0,0 +1,71 @@
+package sk.thenoen.slovosledsolver.hash;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Not a test - run main() to see which backend HashBackend.AUTO should pick on this CPU
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Sha256Benchmark {
+
+	private static final String[] SIBLINGS = {"A", "E", "F", "H", "I", "L", "P", "U", "V", "Y", "Š"};
+
+	@Param({"JCA", "KERNEL"})
+	private HashBackend backend;
+
+	@Param({"LUP", "ŠUPALEVY"})
+	private String prefix;
+
+	private WordHasher hasher;
+	private byte[][] candidates;
+
+	@Setup
+	public void setUp() {
+		hasher = backend.createHasher(new HashTargets(new String[0]));
+		candidates = new byte[SIBLINGS.length][];
+		for (int i = 0; i < SIBLINGS.length; i++) {
+			candidates[i] = (prefix + SIBLINGS[i]).getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
+	// siblings of one DFS node differ only in the last tile
+	@Benchmark
+	public int siblings() {
+		int found = 0;
+		final int prefixLength = prefix.getBytes(StandardCharsets.UTF_8).length;
+		for (byte[] candidate : candidates) {
+			found += hasher.find(candidate, candidate.length, prefixLength);
+		}
+		return found;
+	}
+
+	@Benchmark
+	@Fork(value = 1, jvmArgsAppend = {"-XX:+UnlockDiagnosticVMOptions", "-XX:-UseSHA256Intrinsics"})
+	public int siblingsWithoutIntrinsics() {
+		return siblings();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(Sha256Benchmark.class.getSimpleName())
+									   .build()).run();
+	}
+}
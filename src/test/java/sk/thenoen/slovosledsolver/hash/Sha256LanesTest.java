@@ -0,0 +1,68 @@
+package sk.thenoen.slovosledsolver.hash;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+class Sha256LanesTest {
+
+	@BeforeAll
+	static void checkModule() {
+		// the vector profile builds the test and adds the module, a run without it would fail on class loading
+		Assertions.assertTrue(HashBackend.isVectorSupported());
+	}
+
+	@Test
+	void findsTargetsInEveryLane() throws Exception {
+		final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+		final Random random = new Random(42);
+		final byte[][] messages = new byte[200][];
+		final String[] hashes = new String[messages.length / 2];
+		for (int i = 0; i < messages.length; i++) {
+			messages[i] = new byte[1 + random.nextInt(Sha256.MAX_MESSAGE_LENGTH)];
+			random.nextBytes(messages[i]);
+			messages[i][0] = (byte) i; // distinct messages, random ones of the same short length could collide
+			if (i % 2 == 0) {
+				hashes[i / 2] = HexFormat.of().formatHex(messageDigest.digest(messages[i]));
+			}
+		}
+		final Sha256Lanes lanes = new Sha256Lanes(new HashTargets(hashes));
+
+		for (int first = 0; first < messages.length; first += lanes.lanes()) {
+			final int count = Math.min(lanes.lanes(), messages.length - first);
+			for (int lane = 0; lane < count; lane++) {
+				System.arraycopy(messages[first + lane], 0, lanes.message(lane), 0, messages[first + lane].length);
+				lanes.setLength(lane, messages[first + lane].length);
+			}
+
+			final int matches = lanes.hash(count);
+
+			for (int lane = 0; lane < count; lane++) {
+				final int message = first + lane;
+				final boolean target = message % 2 == 0;
+				Assertions.assertEquals(target, (matches & 1 << lane) != 0, "message " + message);
+				if (target) {
+					Assertions.assertEquals(message / 2, lanes.targetIndex(lane));
+				}
+			}
+		}
+	}
+
+	@Test
+	void ignoresLanesBeyondCount() throws Exception {
+		final byte[] word = "ŠUPA".getBytes("UTF-8");
+		final String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(word));
+		final Sha256Lanes lanes = new Sha256Lanes(new HashTargets(new String[]{hash}));
+		for (int lane = 0; lane < lanes.lanes(); lane++) {
+			System.arraycopy(word, 0, lanes.message(lane), 0, word.length);
+			lanes.setLength(lane, word.length);
+		}
+
+		Assertions.assertEquals(1, lanes.hash(1));
+		Assertions.assertEquals(0, lanes.hash(0));
+	}
+}
@@ -0,0 +1,81 @@
+package sk.thenoen.slovosledsolver.hash;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+
+class Sha256Test {
+
+	@Test
+	void matchesMessageDigestForEveryLength() throws Exception {
+		final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+		final Sha256 sha256 = new Sha256();
+		final Random random = new Random(42);
+
+		for (int length = 0; length <= Sha256.MAX_MESSAGE_LENGTH; length++) {
+			final byte[] message = new byte[length];
+			random.nextBytes(message);
+
+			sha256.hash(message, length, 0);
+
+			Assertions.assertArrayEquals(messageDigest.digest(message), toBytes(sha256.digest()), "length " + length);
+		}
+	}
+
+	@Test
+	void resumesFromSharedPrefix() throws Exception {
+		final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+		final Sha256 sha256 = new Sha256();
+		final Random random = new Random(7);
+		final byte[] buffer = new byte[Sha256.MAX_MESSAGE_LENGTH];
+		random.nextBytes(buffer);
+		int previousLength = 0;
+
+		for (int i = 0; i < 10_000; i++) {
+			final int length = random.nextInt(buffer.length + 1);
+			final int changedFrom = random.nextInt(length + 1);
+			for (int j = changedFrom; j < length; j++) {
+				buffer[j] = (byte) random.nextInt();
+			}
+
+			sha256.hash(buffer, length, Math.min(changedFrom, previousLength));
+
+			final byte[] expected = messageDigest.digest(Arrays.copyOf(buffer, length));
+			Assertions.assertArrayEquals(expected, toBytes(sha256.digest()));
+			previousLength = length;
+		}
+	}
+
+	@Test
+	void hasherForgetsPrefixOfLongWord() throws Exception {
+		final byte[] word = new byte[Sha256.MAX_MESSAGE_LENGTH + 9];
+		Arrays.fill(word, (byte) 'Z');
+		System.arraycopy("XYZWEFGH".getBytes(StandardCharsets.US_ASCII), 0, word, 0, 8);
+		final String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Arrays.copyOf(word, 8)));
+		final Sha256Hasher hasher = new Sha256Hasher(new HashTargets(new String[]{hash}));
+
+		Assertions.assertEquals(-1, hasher.find("ABCDEFGH".getBytes(StandardCharsets.US_ASCII)));
+		Assertions.assertEquals(-1, hasher.find(word, word.length, 0));
+		Assertions.assertEquals(0, hasher.find(word, 8, 8));
+	}
+
+	@Test
+	void rejectsMessageLongerThanBlock() {
+		Assertions.assertThrows(IllegalArgumentException.class,
+								() -> new Sha256().hash(new byte[Sha256.MAX_MESSAGE_LENGTH + 1], Sha256.MAX_MESSAGE_LENGTH + 1, 0));
+	}
+
+	private static byte[] toBytes(int[] digest) {
+		final ByteBuffer buffer = ByteBuffer.allocate(HashTargets.DIGEST_LENGTH);
+		for (int word : digest) {
+			buffer.putInt(word);
+		}
+		return buffer.array();
+	}
+}
@@ -9,7 +9,6 @@ import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import sk.thenoen.slovosledsolver.DataStorage;
 import sk.thenoen.slovosledsolver.GameGenerator;
 import sk.thenoen.slovosledsolver.PageDownloader;
 import sk.thenoen.slovosledsolver.PageParser;
@@ -20,8 +19,6 @@ class GameTest {
 	private static PageDownloader pageDownloader = Mockito.mock(PageDownloader.class);
 	private static PageParser pageParser;
 
-	private DataStorage dataStorageMock;
-
 	@BeforeAll
 	static void setUp() {
 		pageParser = new PageParser(pageDownloader, new ObjectMapper());
@@ -29,10 +26,6 @@ class GameTest {
 		Mockito.when(pageDownloader.retrievePageContent()).thenReturn(pageContent);
 	}
 
-	private void initDataStorage() {
-		dataStorageMock = Mockito.mock(DataStorage.class);
-	}
-
 	@Test
 	void playGameAndVerifyScore() {
 		final List<String> words = List.of("ŠUPA", "LUPA", "LUPY", "LALU", "PELU", "PAŠU");
@@ -40,7 +33,7 @@ class GameTest {
 		final List<Tile> tiles = pageParser.retrieveLetters();
 		tiles.get(0).setLetter("L");
 
-		GameGenerator gameGenerator = new GameGenerator(dataStorageMock);
+		GameGenerator gameGenerator = new GameGenerator();
 		final Map<String, List<List<Integer>>> wordSelectionCombinations = gameGenerator.generateAllPossibleWordSelectionCombinations(tiles, words);
 
 		final String wordsCombination = wordSelectionCombinations.keySet().stream().findFirst().get();
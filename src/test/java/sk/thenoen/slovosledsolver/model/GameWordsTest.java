@@ -0,0 +1,54 @@
+package sk.thenoen.slovosledsolver.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameWordsTest {
+
+	private static final List<String> WORDS = List.of("OKO", "AUTO", "SEDLO", "OSA", "KOLESO");
+
+	@Test
+	void playsAndBoundsLikeScoreKernel() {
+		final Random random = new Random(3);
+		final List<Tile> tiles = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			final Tile tile = new Tile();
+			tile.setLetter(String.valueOf((char) ('A' + i)));
+			tile.setValue(1 + random.nextInt(3));
+			tiles.add(tile);
+		}
+		final Bonus bonus = new Bonus();
+		bonus.setPattern("3030");
+		bonus.setValue(7);
+		bonus.setIndex(2);
+		final Map<String, int[]> selections = new HashMap<>();
+		for (String word : WORDS) {
+			selections.put(word, random.ints(2, 0, 1 << tiles.size()).toArray());
+		}
+		final GameWords gameWords = new GameWords(WORDS, tiles, bonus, selections);
+		final ScoreKernel scoreKernel = gameWords.scoreKernel();
+
+		for (int round = 0; round < 100; round++) {
+			final int[] wordIndices = IntStream.range(0, WORDS.size()).toArray();
+			final int[] masks = IntStream.of(wordIndices).map(word -> gameWords.selections(word)[random.nextInt(2)]).toArray();
+			final int[] wordLengths = WORDS.stream().mapToInt(String::length).toArray();
+			final long[] bonusScores = WORDS.stream().mapToLong(scoreKernel::bonusScore).toArray();
+			assertEquals(scoreKernel.play(masks, wordLengths, bonusScores), gameWords.play(wordIndices, masks));
+
+			// the bound of the last word covers its score after the others
+			final long state = IntStream.of(masks).limit(WORDS.size() - 1).asLongStream().reduce(ScoreKernel.INITIAL_STATE, (s, mask) -> scoreKernel.use(s, (int) mask));
+			final int lastWord = WORDS.size() - 1;
+			assertTrue(gameWords.bound(ScoreKernel.INITIAL_STATE, lastWord, WORDS.size()) >= gameWords.score(state, lastWord, masks[lastWord], true));
+		}
+		assertEquals(GameWords.NO_BOUND, new GameWords(List.of("OKO"), tiles, bonus, Map.of("OKO", new int[0])).bound(ScoreKernel.INITIAL_STATE, 0, 1));
+	}
+}
@@ -0,0 +1,117 @@
+package sk.thenoen.slovosledsolver.model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import sk.thenoen.slovosledsolver.GameGenerator;
+import sk.thenoen.slovosledsolver.PageDownloader;
+import sk.thenoen.slovosledsolver.PageParser;
+import sk.thenoen.slovosledsolver.TestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScoreKernelTest {
+
+	private static final List<String> WORDS = List.of("ŠUPA", "LUPA", "LUPY", "LALU", "PELU", "PAŠU");
+
+	private static PageParser pageParser;
+
+	@BeforeAll
+	static void setUp() {
+		final String pageContent = TestUtils.loadPageContent();
+		pageParser = new PageParser(new PageDownloader() {
+			@Override
+			public String retrievePageContent() {
+				return pageContent;
+			}
+		}, new ObjectMapper());
+	}
+
+	@Test
+	void playsWordsOfGameTest() {
+		final List<Tile> tiles = pageParser.retrieveLetters();
+		tiles.get(0).setLetter("L");
+
+		final Map<String, List<List<Integer>>> wordSelections = new GameGenerator().generateAllPossibleWordSelectionCombinations(tiles, WORDS);
+
+		final Bonus bonus = new Bonus();
+		bonus.setPattern("0111");
+		bonus.setValue(5);
+		bonus.setIndex(2);
+
+		final ScoreKernel scoreKernel = new ScoreKernel(tiles, bonus);
+		final int[] masks = new int[WORDS.size()];
+		final int[] wordLengths = WORDS.stream().mapToInt(String::length).toArray();
+		final long[] bonusScores = WORDS.stream().mapToLong(scoreKernel::bonusScore).toArray();
+		final int games = WORDS.stream().mapToInt(word -> wordSelections.get(word).size()).max().getAsInt();
+		for (int game = 0; game < games; game++) {
+			final List<List<Integer>> selections = new ArrayList<>();
+			for (int i = 0; i < WORDS.size(); i++) {
+				final List<List<Integer>> selectionsOfWord = wordSelections.get(WORDS.get(i));
+				selections.add(selectionsOfWord.get((game + i) % selectionsOfWord.size()));
+				masks[i] = ScoreKernel.mask(selections.get(i));
+			}
+			assertEquals(new Game(tiles, bonus, WORDS, selections).play(), scoreKernel.play(masks, wordLengths, bonusScores));
+		}
+	}
+
+	@Test
+	void monthLetterBonusOfShortBoard() {
+		final List<Tile> tiles = pageParser.retrieveLetters().subList(0, LocalDate.now().getMonthValue() - 1);
+		final Bonus bonus = new Bonus();
+		bonus.setPattern("0111");
+		bonus.setValue(5);
+		bonus.setIndex(8);
+
+		final ScoreKernel scoreKernel = new ScoreKernel(tiles, bonus);
+		for (String word : WORDS) {
+			assertEquals(0, scoreKernel.bonusScore(word));
+		}
+	}
+
+	@Test
+	void playsRandomGamesLikeGame() {
+		final Random random = new Random(7);
+		final List<Tile> tiles = pageParser.retrieveLetters();
+		for (int round = 0; round < 2000; round++) {
+			for (Tile tile : tiles) {
+				tile.setValue(1 + random.nextInt(3));
+				tile.setUsageCount(random.nextInt(3));
+			}
+			final Bonus bonus = new Bonus();
+			bonus.setPattern(IntStream.range(0, 4).mapToObj(i -> String.valueOf(random.nextInt(4))).reduce("", String::concat));
+			bonus.setValue(1 + random.nextInt(10));
+			bonus.setIndex(random.nextInt(8));
+
+			final int wordCount = 1 + random.nextInt(8);
+			final List<String> words = new ArrayList<>();
+			final List<List<Integer>> selections = new ArrayList<>();
+			final int[] masks = new int[wordCount];
+			final int[] wordLengths = new int[wordCount];
+			final long[] bonusScores = new long[wordCount];
+			final ScoreKernel scoreKernel = new ScoreKernel(tiles, bonus);
+			for (int i = 0; i < wordCount; i++) {
+				final List<Integer> tileIndices = new ArrayList<>(IntStream.range(0, tiles.size()).boxed().toList());
+				Collections.shuffle(tileIndices, random);
+				final List<Integer> selection = tileIndices.subList(0, 2 + random.nextInt(5));
+				final String word = selection.stream().map(index -> tiles.get(index).getLetter()).reduce("", String::concat);
+				words.add(word);
+				selections.add(selection);
+				masks[i] = ScoreKernel.mask(selection);
+				wordLengths[i] = word.length();
+				bonusScores[i] = scoreKernel.bonusScore(word);
+			}
+
+			assertEquals(new Game(tiles, bonus, words, selections).play(), scoreKernel.play(masks, wordLengths, bonusScores));
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package sk.thenoen.slovosledsolver.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalTest {
+
+	@Test
+	void resumesJournalOfTheSameRun() throws Exception {
+		final Path location = Files.createTempDirectory("journal").resolve("search-journal.txt");
+
+		final Journal journal = Journal.open(location, "key");
+		journal.append("unit", "3:0:1");
+		journal.append("word", "ŠUPA");
+		journal.flush();
+		// killed while writing the next entry
+		Files.writeString(location, "unit\t3:0", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+		final Journal resumed = Journal.open(location, "key");
+		assertEquals(2, resumed.entries().size());
+		assertArrayEquals(new String[]{"word", "ŠUPA"}, resumed.entries().get(1));
+
+		resumed.append("unit", "3:0:2");
+		resumed.flush();
+		assertEquals(3, Journal.open(location, "key").entries().size());
+	}
+
+	@Test
+	void discardsJournalOfAnotherRun() throws Exception {
+		final Path location = Files.createTempDirectory("journal").resolve("search-journal.txt");
+		final Journal journal = Journal.open(location, "key");
+		journal.append("unit", "3:0:1");
+		journal.flush();
+
+		assertTrue(Journal.open(location, "other key").entries().isEmpty());
+	}
+
+	@Test
+	void deletesCompletedJournal() throws Exception {
+		final Path location = Files.createTempDirectory("journal").resolve("search-journal.txt");
+		final Journal journal = Journal.open(location, "key");
+		journal.append("unit", "3:0:1");
+
+		journal.complete();
+
+		assertFalse(Files.exists(location));
+	}
+}